@@ -0,0 +1,168 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the benchmarks with the GC profiler, so the allocation rate is reported next to the throughput, and writes the
+ * results to a csv file. If a baseline results file is given, the results are compared against it.
+ * <p>
+ * Usage: {@code java -jar "Sound Finder Benchmarks.jar" [--baseline <results.csv>] [jmh options]}. Results are
+ * written to "results.csv" unless "-rff" is given. To update the baseline, copy the results over "baseline.csv".
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path baseline = null;
+        var jmhArgs = new ArrayList<>(Arrays.asList(args));
+        int baselineIndex = jmhArgs.indexOf("--baseline");
+
+        if (baselineIndex != -1) {
+            if (baselineIndex + 1 == jmhArgs.size()) {
+                System.err.println("Missing file of --baseline.");
+                System.exit(2);
+            }
+            baseline = Path.of(jmhArgs.remove(baselineIndex + 1));
+            jmhArgs.remove(baselineIndex);
+        }
+
+        final CommandLineOptions commandLine;
+        try {
+            commandLine = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        } catch (CommandLineOptionException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        Path results = Path.of(commandLine.getResult().orElse("results.csv"));
+        var options = new OptionsBuilder().parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result(results.toString())
+                .build();
+
+        new Runner(options).run();
+
+        if (baseline != null) compare(baseline, results);
+    }
+
+    /**
+     * Prints the change of each score of the results relative to the baseline.
+     */
+    private static void compare(@NotNull Path baseline, @NotNull Path results) throws IOException {
+        Map<String, Score> before = scores(baseline);
+        Map<String, Score> after = scores(results);
+
+        System.out.println("\nChange relative to '" + baseline + "':");
+        for (Map.Entry<String, Score> score : after.entrySet()) {
+            Score previous = before.get(score.getKey());
+            if (previous == null || !previous.unit().equals(score.getValue().unit())) {
+                System.out.printf("%-90s %14.3f %-12s (not in baseline)%n", score.getKey(), score.getValue().value(), score.getValue().unit());
+                continue;
+            }
+
+            double change = previous.value() == 0 ? 0 : (score.getValue().value() - previous.value()) / previous.value() * 100;
+            System.out.printf("%-90s %14.3f %-12s %+8.1f%%%n", score.getKey(), score.getValue().value(), score.getValue().unit(), change);
+        }
+    }
+
+    /**
+     * Reads the scores of a JMH csv results file, keyed by benchmark and parameters.
+     */
+    private static @NotNull Map<String, Score> scores(@NotNull Path csv) throws IOException {
+        List<String> lines = Files.readAllLines(csv);
+        var scores = new LinkedHashMap<String, Score>();
+        if (lines.isEmpty()) return scores;
+
+        List<String> header = fields(lines.get(0));
+        int score = header.indexOf("Score");
+        int unit = header.indexOf("Unit");
+
+        for (int i = 1; i < lines.size(); ++i) {
+            List<String> fields = fields(lines.get(i));
+            if (fields.size() != header.size()) continue;
+
+            var key = new StringBuilder(fields.get(0));
+            for (int f = 0; f < header.size(); ++f) {
+                if (header.get(f).startsWith("Param: ") && !fields.get(f).isEmpty()) {
+                    key.append(' ').append(header.get(f).substring(7)).append('=').append(fields.get(f));
+                }
+            }
+            try {
+                scores.put(key.toString(), new Score(Double.parseDouble(fields.get(score)), fields.get(unit)));
+            } catch (NumberFormatException ignored) {
+                // Scores of benchmarks that failed are NaN or empty.
+            }
+        }
+        return scores;
+    }
+
+    private static @NotNull List<String> fields(@NotNull String line) {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); ++i) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    ++i;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Score(double value, @NotNull String unit) {
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.benchmark;
+
+import com.epicnicity322.soundfinder.Base;
+import com.epicnicity322.soundfinder.SoundCatalog;
+import com.epicnicity322.soundfinder.SoundEmitter;
+import com.epicnicity322.soundfinder.SoundMatcher;
+import com.epicnicity322.soundfinder.util.Version;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The emit half of printOutput: compressing versions into ranges and formatting the already matched sounds of the
+ * 1.21.11 base. Output is discarded, so only the emitters are measured, not the disk.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmitBenchmark {
+    @Param({"ENUM", "JSON", "YAML", "CSV"})
+    public SoundEmitter.Format format;
+    private TreeMap<Version, SoundCatalog> versions;
+    private TreeMap<String, TreeMap<Version, String>> soundVersionName;
+
+    @Setup
+    public void setup() throws IOException {
+        versions = Fixtures.catalogs();
+        Version base = versions.lastKey();
+        soundVersionName = SoundMatcher.soundVersionName(new Base(base, versions.get(base)), versions);
+    }
+
+    @Benchmark
+    public void emit() throws IOException {
+        SoundEmitter emitter = format.emitter(Writer.nullWriter(), true);
+
+        emitter.begin(versions.keySet());
+        for (Map.Entry<String, TreeMap<Version, String>> sound : soundVersionName.entrySet()) {
+            emitter.sound(sound.getKey(), sound.getValue(), SoundEmitter.ranges(sound.getValue()));
+        }
+        emitter.end();
+    }
+}
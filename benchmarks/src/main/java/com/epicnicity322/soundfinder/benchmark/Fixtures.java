@@ -0,0 +1,65 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.benchmark;
+
+import com.epicnicity322.soundfinder.CatalogSource;
+import com.epicnicity322.soundfinder.SoundCatalog;
+import com.epicnicity322.soundfinder.SoundFinderManager;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The sounds jsons bundled in Sound Finder, used as fixtures by every benchmark.
+ */
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    /**
+     * @return The contents of each bundled json.
+     * @throws IOException If the bundled jsons could not be read.
+     */
+    static @NotNull TreeMap<Version, ByteBuffer> jsons() throws IOException {
+        var jsons = new TreeMap<Version, ByteBuffer>();
+        for (CatalogSource.Entry entry : CatalogSource.bundled().entries()) jsons.put(entry.version(), entry.read());
+        return jsons;
+    }
+
+    /**
+     * Parses every bundled json with the same dictionary, like a load does.
+     *
+     * @return The catalog of each bundled json.
+     * @throws IOException If the bundled jsons could not be read or parsed.
+     */
+    static @NotNull TreeMap<Version, SoundCatalog> catalogs() throws IOException {
+        var dictionary = new StringDictionary();
+        var catalogs = new TreeMap<Version, SoundCatalog>();
+
+        for (Map.Entry<Version, ByteBuffer> json : jsons().entrySet()) {
+            catalogs.put(json.getKey(), SoundFinderManager.getSoundNamesAndOggArray(json.getValue(), dictionary));
+        }
+        return catalogs;
+    }
+}
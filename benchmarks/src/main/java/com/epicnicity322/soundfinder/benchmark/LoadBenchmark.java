@@ -0,0 +1,49 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.benchmark;
+
+import com.epicnicity322.soundfinder.CatalogSource;
+import com.epicnicity322.soundfinder.SoundCatalog;
+import com.epicnicity322.soundfinder.SoundFinderManager;
+import com.epicnicity322.soundfinder.util.Version;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The load phase: listing and parsing every bundled json.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+    /**
+     * Every bundled json. Jsons parsed in a previous invocation are read from their cached snapshot, as in a real run.
+     */
+    @Benchmark
+    public TreeMap<Version, SoundCatalog> getAvailableVersions() throws IOException {
+        return SoundFinderManager.getAvailableVersions(List.of(CatalogSource.bundled()));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.benchmark;
+
+import com.epicnicity322.soundfinder.Base;
+import com.epicnicity322.soundfinder.SoundCatalog;
+import com.epicnicity322.soundfinder.SoundMatcher;
+import com.epicnicity322.soundfinder.util.Version;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The matching half of printOutput: matching every sound of a base against every bundled version.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatchBenchmark {
+    @Param({"1.7", "1.13", "1.21.11"})
+    public String base;
+    private Base baseVersion;
+    private TreeMap<Version, SoundCatalog> versions;
+
+    @Setup
+    public void setup() throws IOException {
+        versions = Fixtures.catalogs();
+        baseVersion = new Base(Version.of(base), versions.get(Version.of(base)));
+    }
+
+    @Benchmark
+    public int soundVersionName(Blackhole blackhole) throws IOException {
+        return SoundMatcher.soundVersionName(baseVersion, versions, (enumName, names) -> blackhole.consume(names));
+    }
+}
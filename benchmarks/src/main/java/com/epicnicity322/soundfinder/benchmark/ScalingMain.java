@@ -0,0 +1,244 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.benchmark;
+
+import com.epicnicity322.soundfinder.*;
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Runs the whole pipeline of a generation, loading, matching and emitting, over synthetic datasets of growing size, and
+ * writes the time of each phase and the peak heap of each run to a csv file. Once every size ran, the growth of each
+ * phase is fitted against the amount of oggs, so phases that scale worse than linearly are reported before a real
+ * minecraft version hits them.
+ * <p>
+ * The snapshots of the synthetic jsons are deleted before each run, so every run parses the jsons, unless
+ * {@code --cached} is given. Runs are single shot, not JMH benchmarks, since a single run of the largest sizes takes
+ * seconds and the peak heap of a run is only meaningful on its own.
+ * <p>
+ * Usage: {@code java -cp "Sound Finder Benchmarks.jar" com.epicnicity322.soundfinder.benchmark.ScalingMain
+ * [--versions <n>,<n>...] [--events <n>,<n>...] [--fan-out <n>] [--rename-rate <0-1>] [--runs <n>] [--cached]
+ * [--out <scaling.csv>]}. Every combination of versions and events is a size.
+ */
+public final class ScalingMain {
+    /**
+     * Phases growing faster than the oggs to this power are reported as super-linear.
+     */
+    private static final double SUPER_LINEAR = 1.2;
+
+    private ScalingMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int[] versions = {25, 50, 100, 200};
+        int[] events = {1700};
+        int fanOut = SyntheticSounds.Spec.DEFAULT.fanOut();
+        double renameRate = SyntheticSounds.Spec.DEFAULT.renameRate();
+        int runs = 3;
+        boolean cached = false;
+        Path out = Path.of("scaling.csv");
+
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                if (args[i].equals("--cached")) {
+                    cached = true;
+                    continue;
+                }
+                if (i + 1 == args.length) throw new IllegalArgumentException("Missing value of " + args[i] + ".");
+                String value = args[++i];
+
+                switch (args[i - 1]) {
+                    case "--versions" -> versions = ints(value);
+                    case "--events" -> events = ints(value);
+                    case "--fan-out" -> fanOut = Integer.parseInt(value);
+                    case "--rename-rate" -> renameRate = Double.parseDouble(value);
+                    case "--runs" -> runs = Integer.parseInt(value);
+                    case "--out" -> out = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option '" + args[i - 1] + "'.");
+                }
+            }
+            if (runs < 1) throw new IllegalArgumentException("Runs must be at least 1.");
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        var results = new ArrayList<Result>();
+        Path root = Files.createTempDirectory("sound-finder-scaling");
+        var cache = new CatalogCache(root.resolve("cache"));
+        try {
+            for (int versionCount : versions) {
+                for (int eventCount : events) {
+                    var spec = new SyntheticSounds.Spec(versionCount, eventCount, fanOut, renameRate, 1);
+                    Path folder = root.resolve(versionCount + "x" + eventCount);
+                    long bytes = SyntheticSounds.write(folder, spec);
+
+                    for (int run = 0; run < runs; ++run) {
+                        if (!cached) deleteSnapshots(folder, cache);
+                        Result result = run(spec, bytes, folder, cache, run);
+                        results.add(result);
+                        System.out.printf(Locale.ROOT, "%d versions x %d events, run %d: %.1f ms, peak heap %.1f MB%n",
+                                versionCount, eventCount, run + 1, result.total() / 1e6, result.peakHeap() / 1_048_576.0);
+                    }
+                    if (!cached) deleteSnapshots(folder, cache);
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(root)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(file);
+            }
+        }
+
+        write(results, out);
+        System.out.println("Wrote '" + out + "'.");
+        fit(results);
+    }
+
+    private static int @NotNull [] ints(@NotNull String value) {
+        return Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static void deleteSnapshots(@NotNull Path folder, @NotNull CatalogCache cache) throws IOException {
+        try (DirectoryStream<Path> jsons = Files.newDirectoryStream(folder, "*.json")) {
+            for (Path json : jsons) cache.delete(CatalogCache.key(SoundsJsonReader.buffer(json)));
+        }
+    }
+
+    /**
+     * Loads the jsons of a folder, matches them against the last version and emits an enum and a json, discarding the
+     * output.
+     */
+    @SuppressWarnings("try")
+    private static @NotNull Result run(@NotNull SyntheticSounds.Spec spec, long bytes, @NotNull Path folder,
+                                       @NotNull CatalogCache cache, int run) throws IOException {
+        System.gc();
+        RunReport.start();
+        var report = new RunReport();
+        long start = System.nanoTime();
+
+        TreeMap<Version, SoundCatalog> catalogs = SoundFinderManager.getAvailableVersions(List.of(new FolderCatalogSource(folder)), report, cache);
+        var table = new SoundTable(new Base(catalogs.lastKey(), catalogs.lastEntry().getValue()));
+        table.putAll(catalogs, report, Runtime.getRuntime().availableProcessors());
+
+        try (var ignored = report.phase("emit")) {
+            List<SoundEmitter> emitters = List.of(SoundEmitter.Format.ENUM.emitter(Writer.nullWriter(), true),
+                    SoundEmitter.Format.JSON.emitter(Writer.nullWriter(), true));
+            for (SoundEmitter emitter : emitters) emitter.begin(table.versions());
+            table.rows((enumName, names) -> {
+                List<SoundEmitter.Range> ranges = SoundEmitter.ranges(names);
+                for (SoundEmitter emitter : emitters) emitter.sound(enumName, names, ranges);
+            });
+            for (SoundEmitter emitter : emitters) emitter.end();
+        }
+
+        return new Result(spec, bytes, run, System.nanoTime() - start, report.phases(), report.peakHeap());
+    }
+
+    private static void write(@NotNull List<Result> results, @NotNull Path out) throws IOException {
+        var phases = phases(results);
+
+        try (Writer writer = Files.newBufferedWriter(out)) {
+            writer.write("versions,events,fanOut,renameRate,oggs,jsonBytes,run,totalMs");
+            for (String phase : phases) writer.write("," + phase + "Ms");
+            writer.write(",peakHeapBytes\n");
+
+            for (Result result : results) {
+                SyntheticSounds.Spec spec = result.spec();
+                writer.write(String.format(Locale.ROOT, "%d,%d,%d,%s,%d,%d,%d,%.3f", spec.versions(), spec.events(),
+                        spec.fanOut(), spec.renameRate(), spec.oggs(), result.bytes(), result.run() + 1, result.total() / 1e6));
+                for (String phase : phases) {
+                    writer.write(String.format(Locale.ROOT, ",%.3f", result.phases().getOrDefault(phase, 0L) / 1e6));
+                }
+                writer.write("," + result.peakHeap() + "\n");
+            }
+        }
+    }
+
+    /**
+     * Fits the fastest run of each size to {@code time = c * oggs^exponent} by least squares over the logarithms, and
+     * prints the exponent of every phase, the total and the peak heap.
+     */
+    private static void fit(@NotNull List<Result> results) {
+        var best = new TreeMap<Long, Result>();
+        for (Result result : results) best.merge(result.spec().oggs(), result, (a, b) -> a.total() <= b.total() ? a : b);
+        if (best.size() < 2) {
+            System.out.println("At least two sizes are needed to fit the growth of the phases.");
+            return;
+        }
+
+        var measures = new LinkedHashMap<String, double[]>();
+        int i = 0;
+        var sizes = new double[best.size()];
+        for (Result result : best.values()) {
+            sizes[i] = result.spec().oggs();
+            measures.computeIfAbsent("total", k -> new double[sizes.length])[i] = result.total();
+            for (String phase : phases(results)) {
+                measures.computeIfAbsent(phase, k -> new double[sizes.length])[i] = result.phases().getOrDefault(phase, 0L);
+            }
+            measures.computeIfAbsent("peakHeap", k -> new double[sizes.length])[i] = result.peakHeap();
+            ++i;
+        }
+
+        System.out.println("\nGrowth against the amount of oggs, from " + (long) sizes[0] + " to " + (long) sizes[sizes.length - 1] + ":");
+        for (Map.Entry<String, double[]> measure : measures.entrySet()) {
+            double exponent = exponent(sizes, measure.getValue());
+            if (Double.isNaN(exponent)) continue;
+            System.out.printf(Locale.ROOT, "%-12s oggs^%.2f%s%n", measure.getKey(), exponent, exponent > SUPER_LINEAR ? "  super-linear" : "");
+        }
+    }
+
+    /**
+     * @return The slope of the least squares line of log(values) against log(sizes), or NaN if a value is not positive.
+     */
+    private static double exponent(double @NotNull [] sizes, double @NotNull [] values) {
+        double meanX = 0, meanY = 0;
+        for (int i = 0; i < sizes.length; ++i) {
+            if (values[i] <= 0) return Double.NaN;
+            meanX += Math.log(sizes[i]) / sizes.length;
+            meanY += Math.log(values[i]) / sizes.length;
+        }
+
+        double covariance = 0, variance = 0;
+        for (int i = 0; i < sizes.length; ++i) {
+            double x = Math.log(sizes[i]) - meanX;
+            covariance += x * (Math.log(values[i]) - meanY);
+            variance += x * x;
+        }
+        return covariance / variance;
+    }
+
+    private static @NotNull List<String> phases(@NotNull List<Result> results) {
+        var phases = new LinkedHashSet<String>();
+        for (Result result : results) phases.addAll(result.phases().keySet());
+        return new ArrayList<>(phases);
+    }
+
+    private record Result(@NotNull SyntheticSounds.Spec spec, long bytes, int run, long total,
+                          @NotNull Map<String, Long> phases, long peakHeap) {
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Writes synthetic "sounds &lt;version&gt;.json" files, to see how the load, match and emit phases behave with more
+ * sounds and versions than the bundled jsons have.
+ * <p>
+ * The first version has the given amount of events, each playing its own oggs. Every version after it renames a share
+ * of the events, keeping their oggs, like minecraft did between 1.8 and 1.9, so older versions are only matched by
+ * oggs. Some oggs have a volume, pitch, weight or stream, like the real jsons. The same spec and seed always write the
+ * same files.
+ * <p>
+ * Usage: {@code java -cp "Sound Finder Benchmarks.jar" com.epicnicity322.soundfinder.benchmark.SyntheticSounds
+ * <folder> [--versions <n>] [--events <n>] [--fan-out <n>] [--rename-rate <0-1>] [--seed <n>]}. The folder may be the
+ * sounds folder of Sound Finder.
+ */
+public final class SyntheticSounds {
+    private static final @NotNull String @NotNull [] CATEGORIES = {"ambient", "block", "entity", "item", "music", "ui", "weather"};
+    private static final @NotNull String @NotNull [] ACTIONS = {"ambient", "break", "death", "hit", "hurt", "place", "step"};
+
+    private SyntheticSounds() {
+    }
+
+    /**
+     * Writes the jsons of a spec, named "sounds 1.0.json", "sounds 1.1.json" and so on.
+     *
+     * @param folder The folder to write the jsons to, created if it doesn't exist.
+     * @param spec   The sizes of the jsons.
+     * @return The total size of the jsons written, in bytes.
+     * @throws IOException If a json could not be written.
+     */
+    public static long write(@NotNull Path folder, @NotNull Spec spec) throws IOException {
+        Files.createDirectories(folder);
+
+        var random = new Random(spec.seed());
+        // The version each event was last renamed in, or -1 if it still has its first name.
+        var renamedIn = new int[spec.events()];
+        Arrays.fill(renamedIn, -1);
+        int renames = (int) Math.round(spec.events() * spec.renameRate());
+        long bytes = 0;
+
+        for (int version = 0; version < spec.versions(); ++version) {
+            if (version != 0) {
+                for (int r = 0; r < renames; ++r) renamedIn[random.nextInt(spec.events())] = version;
+            }
+
+            Path json = folder.resolve("sounds 1." + version + ".json");
+            try (Writer writer = Files.newBufferedWriter(json, StandardCharsets.UTF_8)) {
+                writer.write('{');
+                for (int event = 0; event < spec.events(); ++event) {
+                    writer.write(event == 0 ? "\n  \"" : ",\n  \"");
+                    writer.write(name(event, renamedIn[event]));
+                    writer.write("\": {\"subtitle\": \"subtitles.synthetic\", \"sounds\": [");
+
+                    for (int ogg = 0; ogg < spec.fanOut(); ++ogg) {
+                        if (ogg != 0) writer.write(", ");
+                        String location = "\"" + CATEGORIES[event % CATEGORIES.length] + "/s" + event + "/" + ACTIONS[event / CATEGORIES.length % ACTIONS.length] + (ogg + 1) + "\"";
+                        int kind = (event * spec.fanOut() + ogg) % 16;
+
+                        if (kind == 0) {
+                            writer.write("{\"name\": " + location + ", \"volume\": 0.5, \"pitch\": 1.2}");
+                        } else if (kind == 1) {
+                            writer.write("{\"name\": " + location + ", \"weight\": 2, \"stream\": true}");
+                        } else {
+                            writer.write(location);
+                        }
+                    }
+                    writer.write("]}");
+                }
+                writer.write("\n}\n");
+            }
+            bytes += Files.size(json);
+        }
+
+        return bytes;
+    }
+
+    private static @NotNull String name(int event, int renamedIn) {
+        String category = CATEGORIES[event % CATEGORIES.length];
+        String action = ACTIONS[event / CATEGORIES.length % ACTIONS.length];
+        return category + ".s" + event + (renamedIn == -1 ? "" : "r" + renamedIn) + "." + action;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.err.println("Usage: SyntheticSounds <folder> [--versions <n>] [--events <n>] [--fan-out <n>] [--rename-rate <0-1>] [--seed <n>]");
+            System.exit(2);
+        }
+
+        Spec spec = Spec.DEFAULT;
+        try {
+            for (int i = 1; i < args.length; i += 2) {
+                if (i + 1 == args.length) throw new IllegalArgumentException("Missing value of " + args[i] + ".");
+                String value = args[i + 1];
+
+                spec = switch (args[i]) {
+                    case "--versions" -> new Spec(Integer.parseInt(value), spec.events(), spec.fanOut(), spec.renameRate(), spec.seed());
+                    case "--events" -> new Spec(spec.versions(), Integer.parseInt(value), spec.fanOut(), spec.renameRate(), spec.seed());
+                    case "--fan-out" -> new Spec(spec.versions(), spec.events(), Integer.parseInt(value), spec.renameRate(), spec.seed());
+                    case "--rename-rate" -> new Spec(spec.versions(), spec.events(), spec.fanOut(), Double.parseDouble(value), spec.seed());
+                    case "--seed" -> new Spec(spec.versions(), spec.events(), spec.fanOut(), spec.renameRate(), Long.parseLong(value));
+                    default -> throw new IllegalArgumentException("Unknown option '" + args[i] + "'.");
+                };
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+
+        Path folder = Path.of(args[0]);
+        long bytes = write(folder, spec);
+        System.out.printf(Locale.ROOT, "Wrote %d jsons of %d events to '%s' (%.1f MB).%n", spec.versions(), spec.events(), folder, bytes / 1_048_576.0);
+    }
+
+    /**
+     * The sizes of a synthetic dataset.
+     *
+     * @param versions   The amount of versions.
+     * @param events     The amount of events of each version.
+     * @param fanOut     The amount of oggs of each event.
+     * @param renameRate The share of the events renamed in each version after the first, from 0 to 1.
+     * @param seed       The seed of the renames.
+     */
+    public record Spec(int versions, int events, int fanOut, double renameRate, long seed) {
+        /**
+         * Sizes close to the bundled jsons of 1.21.11.
+         */
+        public static final @NotNull Spec DEFAULT = new Spec(46, 1700, 3, 0.02, 1);
+
+        public Spec {
+            if (versions < 1 || events < 1 || fanOut < 1) throw new IllegalArgumentException("Versions, events and fan-out must be at least 1.");
+            if (!(renameRate >= 0 && renameRate <= 1)) throw new IllegalArgumentException("The rename rate must be from 0 to 1.");
+        }
+
+        /**
+         * @return The amount of oggs in every version together.
+         */
+        public long oggs() {
+            return (long) versions * events * fanOut;
+        }
+    }
+}
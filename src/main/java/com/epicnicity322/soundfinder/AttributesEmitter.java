@@ -0,0 +1,85 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Writes sounds as a json object of enum names to the oggs the sound plays in the base, with the volume, pitch, weight
+ * and stream of each one, like
+ * {@code "AMBIENT_CAVE": [{"name": "ambient/cave/cave1", "volume": 1.0, "pitch": 1.0, "weight": 1, "stream": false}]}.
+ * Sounds with the same enum name are written with the oggs of the last one, like their names.
+ */
+public final class AttributesEmitter implements SoundEmitter {
+    private final @NotNull Writer writer;
+    private final @NotNull SoundCatalog base;
+    private final @NotNull HashMap<String, Integer> indexes;
+    private boolean firstSound = true;
+
+    /**
+     * @param writer The writer to write the sounds to.
+     * @param base   The catalog of the base the sounds were matched from.
+     */
+    public AttributesEmitter(@NotNull Writer writer, @NotNull SoundCatalog base) {
+        this.writer = writer;
+        this.base = base;
+        this.indexes = new HashMap<>((int) (base.size() / 0.75f) + 1);
+
+        for (int i = 0; i < base.size(); ++i) indexes.put(SoundTable.enumName(base.eventName(i)), i);
+    }
+
+    @Override
+    public void begin(@NotNull Collection<Version> versions) throws IOException {
+        writer.write('{');
+    }
+
+    @Override
+    public void sound(@NotNull String enumName, @NotNull SortedMap<Version, String> names,
+                      @NotNull List<Range> ranges) throws IOException {
+        Integer index = indexes.get(enumName);
+        if (index == null) return;
+
+        writer.write(firstSound ? "\n  " : ",\n  ");
+        firstSound = false;
+        JsonEmitter.quote(writer, enumName);
+        writer.write(": [");
+
+        for (int position = base.oggStart(index); position < base.oggEnd(index); ++position) {
+            if (position != base.oggStart(index)) writer.write(", ");
+            writer.write("{\"name\": ");
+            JsonEmitter.quote(writer, base.oggName(position));
+            writer.write(", \"volume\": " + base.volume(position) + ", \"pitch\": " + base.pitch(position)
+                    + ", \"weight\": " + base.weight(position) + ", \"stream\": " + base.stream(position) + '}');
+        }
+        writer.write(']');
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.write("\n}\n");
+    }
+}
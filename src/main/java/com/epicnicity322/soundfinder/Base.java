@@ -18,10 +18,8 @@
 
 package com.epicnicity322.soundfinder;
 
+import com.epicnicity322.soundfinder.util.Version;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
-import java.util.TreeMap;
-
-public record Base(@NotNull String version, @NotNull TreeMap<String, ArrayList<String>> soundNames) {
+public record Base(@NotNull Version version, @NotNull SoundCatalog catalog) {
 }
@@ -0,0 +1,556 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Back;
+import com.epicnicity322.soundfinder.util.OutputFile;
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs generation jobs from the command line, without prompts or delays. The catalogs are loaded and indexed once and
+ * shared by every job of the run, and the jobs run in parallel.
+ * <p>
+ * A job is given by options, like {@code --base 1.21.11 --exclude 1.7,1.7.10 --out output.txt --json output.json}, or
+ * many jobs are given by {@code --script <file>}, a file with the options of one job per line.
+ */
+public final class Batch {
+    /**
+     * Every job was generated.
+     */
+    public static final int SUCCESS = 0;
+    /**
+     * The catalogs were loaded, but at least one job could not be generated or written.
+     */
+    public static final int JOB_FAILED = 1;
+    /**
+     * The options or the script are invalid, or name versions that are not available.
+     */
+    public static final int INVALID_USAGE = 2;
+    /**
+     * The sounds jsons could not be loaded, or there are none.
+     */
+    public static final int LOAD_FAILED = 3;
+
+    private Batch() {
+    }
+
+    /**
+     * @param args The arguments of the program.
+     * @return Whether the arguments are options of a batch run instead of the interactive prompt.
+     */
+    public static boolean isBatch(@NotNull String @NotNull [] args) {
+        return args.length > 0 && args[0].startsWith("--");
+    }
+
+    /**
+     * Parses the options, loads the catalogs and generates every job.
+     *
+     * @param args The arguments of the program.
+     * @return The exit status of the run.
+     */
+    public static int run(@NotNull String @NotNull [] args) {
+        final List<Job> jobs;
+
+        try {
+            jobs = jobs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(usage());
+            return INVALID_USAGE;
+        }
+
+        if (jobs.isEmpty()) {
+            System.out.println(usage());
+            return SUCCESS;
+        }
+
+        RunReport.start();
+        var report = new RunReport();
+        // Streamed jobs read the jsons on their own, so they don't report the load.
+        var streamReport = report.copy();
+        var availableVersions = new TreeMap<Version, SoundCatalog>();
+        // The keys of the jsons loaded, so watches don't parse jsons again on events that didn't change them.
+        var keys = new HashMap<Version, String>();
+
+        if (jobs.stream().anyMatch(job -> !job.stream())) {
+            try {
+                availableVersions = SoundFinderManager.getAvailableVersions(SoundFinderManager.sources(), report,
+                        new CatalogCache(SoundFinder.CACHE_FOLDER), name -> System.err.println("Unable to parse '" + name + "' as a json."), keys);
+            } catch (IOException e) {
+                System.err.println("Something went wrong while getting available sound versions.");
+                e.printStackTrace();
+                return LOAD_FAILED;
+            }
+
+            if (availableVersions.isEmpty()) {
+                System.err.println("There are no sound files in " + SoundFinder.SOUNDS_FOLDER_NAME + " folder.");
+                return LOAD_FAILED;
+            }
+        }
+
+        // Jobs run in parallel, sharing the indexes of the versions, so many bases cost about as much as one. Jobs with
+        // the same parallelism also share the pool they match in, so they don't start a thread per processor each.
+        var indexes = new MatchIndexes();
+        var pools = new ConcurrentHashMap<Integer, ForkJoinPool>();
+        var loaded = availableVersions;
+        try {
+            return jobs.parallelStream().mapToInt(job -> {
+                ForkJoinPool pool = job.parallelism() > 1 ? pools.computeIfAbsent(job.parallelism(), ForkJoinPool::new) : null;
+                return job.stream() ? stream(job, streamReport.copy(), pool) : run(job, loaded, keys, report.copy(), indexes, pool);
+            }).max().orElse(SUCCESS);
+        } finally {
+            for (ForkJoinPool pool : pools.values()) pool.shutdown();
+        }
+    }
+
+    /**
+     * Generates a job reading and matching one version at a time, so memory doesn't grow with the amount of versions.
+     *
+     * @see SoundFinderManager#streamTable(List, Version, Set, SoundFilter, double, ForkJoinPool, RunReport, CatalogCache)
+     */
+    private static int stream(@NotNull Job job, @NotNull RunReport report, @Nullable ForkJoinPool pool) {
+        if (job.base() == null) {
+            System.err.println("A --base version is needed to stream " + job.targets() + ".");
+            return INVALID_USAGE;
+        }
+
+        final SoundTable table;
+        try {
+            table = SoundFinderManager.streamTable(SoundFinderManager.sources(), job.base(), job.excluded(), job.sounds(), job.similarity(), pool, report, new CatalogCache(SoundFinder.CACHE_FOLDER));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + " Streaming " + job.targets() + ".");
+            return INVALID_USAGE;
+        } catch (IOException e) {
+            System.err.println("Something went wrong while streaming sound versions to " + job.targets() + ".");
+            e.printStackTrace();
+            return LOAD_FAILED;
+        }
+
+        if (table.versions().isEmpty()) {
+            System.err.println("Every version was excluded for " + job.targets() + ".");
+            return INVALID_USAGE;
+        }
+        if (job.noDenominator() && table.versions().size() != 1) {
+            System.err.println("The version denominator can only be removed when one version is left, but " + job.targets() + " has " + table.versions() + ".");
+            return INVALID_USAGE;
+        }
+
+        return print(job, table, report);
+    }
+
+    private static int run(@NotNull Job job, @NotNull TreeMap<Version, SoundCatalog> availableVersions, @NotNull Map<Version, String> keys,
+                           @NotNull RunReport report, @NotNull MatchIndexes indexes, @Nullable ForkJoinPool pool) {
+        var versions = new TreeMap<>(availableVersions);
+
+        for (Version excluded : job.excluded()) {
+            if (versions.remove(excluded) == null) {
+                System.err.println("Unknown version '" + excluded + "' to exclude for " + job.targets() + ".");
+                return INVALID_USAGE;
+            }
+        }
+        if (versions.isEmpty()) {
+            System.err.println("Every version was excluded for " + job.targets() + ".");
+            return INVALID_USAGE;
+        }
+        if (job.changelog() != null) return changelog(job, versions, report);
+
+        Base base;
+        if (job.base() == null) {
+            if (availableVersions.size() != 1) {
+                System.err.println("A --base version is needed for " + job.targets() + ". Available sound versions: " + availableVersions.keySet());
+                return INVALID_USAGE;
+            }
+            Map.Entry<Version, SoundCatalog> only = availableVersions.firstEntry();
+            base = new Base(only.getKey(), job.sounds().apply(only.getValue()));
+        } else {
+            SoundCatalog catalog = availableVersions.get(job.base());
+            if (catalog == null) {
+                System.err.println("Unknown base version '" + job.base() + "' for " + job.targets() + ". Available sound versions: " + availableVersions.keySet());
+                return INVALID_USAGE;
+            }
+            base = new Base(job.base(), job.sounds().apply(catalog));
+        }
+
+        if (job.noDenominator() && versions.size() != 1) {
+            System.err.println("The version denominator can only be removed when one version is left, but " + job.targets() + " has " + versions.keySet() + ".");
+            return INVALID_USAGE;
+        }
+
+        if (job.watch()) {
+            return new Watch(job, base.version(), availableVersions, keys, SoundFinderManager.sources(), SoundFinder.SOUNDS_FOLDER,
+                    new CatalogCache(SoundFinder.CACHE_FOLDER), pool).run(report);
+        }
+        if (job.port() != -1) return new QueryServer(job, base.version(), availableVersions, indexes, report, pool).run();
+
+        var table = new SoundTable(base, job.similarity(), indexes);
+        table.putAll(versions, report, pool);
+
+        return print(job, table, report);
+    }
+
+    /**
+     * Writes the changelog of the versions of a job, and the report if the job has one.
+     *
+     * @see Changelog#of(SortedMap, SoundFilter)
+     */
+    @SuppressWarnings("try")
+    private static int changelog(@NotNull Job job, @NotNull TreeMap<Version, SoundCatalog> versions, @NotNull RunReport report) {
+        Path path = Objects.requireNonNull(job.changelog());
+        if (versions.size() < 2) {
+            System.err.println("A changelog needs at least two versions, but " + job.targets() + " has " + versions.keySet() + ".");
+            return INVALID_USAGE;
+        }
+
+        System.out.println("Printing changelog of versions " + versions.keySet() + " to " + job.targets() + "...");
+        final List<Changelog.Change> changes;
+        try (var ignored = report.phase("changelog")) {
+            changes = Changelog.of(versions, job.sounds());
+        }
+
+        try (var ignored = report.phase("write"); OutputFile file = OutputFile.open(path)) {
+            Changelog.write(changes, file.writer());
+            boolean replacing = Files.exists(path);
+            file.commit();
+            if (replacing) System.out.println("Previous '" + path.getFileName() + "' replaced.");
+        } catch (IOException e) {
+            System.err.println("Unable to print " + job.targets() + ":");
+            e.printStackTrace();
+            return JOB_FAILED;
+        }
+
+        return report(job, report);
+    }
+
+    /**
+     * Prints the sounds of a table to the outputs of a job, and writes the report if the job has one.
+     *
+     * @param job    The job.
+     * @param table  The matched sounds.
+     * @param report The report of the job.
+     * @return The exit status of the job.
+     */
+    static int print(@NotNull Job job, @NotNull SoundTable table, @NotNull RunReport report) {
+        System.out.println("Printing sounds of base " + table.base().version() + " with versions " + table.versions() + " to " + job.targets() + "...");
+        try {
+            SoundFinderManager.printOutput(table, !job.noDenominator(), job.outputs(), report);
+        } catch (IOException e) {
+            System.err.println("Unable to print " + job.targets() + ":");
+            e.printStackTrace();
+            return JOB_FAILED;
+        } catch (Back b) {
+            // No sounds were found, already reported by printOutput.
+            return JOB_FAILED;
+        }
+
+        return report(job, report);
+    }
+
+    /**
+     * Writes the report of a job if it has one.
+     *
+     * @return The exit status of the job.
+     */
+    private static int report(@NotNull Job job, @NotNull RunReport report) {
+        if (job.report() != null) {
+            try {
+                report.write(job.report());
+            } catch (IOException e) {
+                System.err.println("Unable to write report '" + job.report() + "':");
+                e.printStackTrace();
+                return JOB_FAILED;
+            }
+        }
+
+        return SUCCESS;
+    }
+
+    /**
+     * Parses the jobs of the arguments, reading the script if there is one.
+     *
+     * @param args The arguments of the program.
+     * @return The jobs to run, empty if only help was asked.
+     * @throws IllegalArgumentException If the arguments or the script are invalid.
+     */
+    static @NotNull List<Job> jobs(@NotNull String @NotNull [] args) {
+        if (args.length > 0 && (args[0].equals("--help") || args[0].equals("-h"))) return Collections.emptyList();
+
+        if (args.length > 0 && (args[0].equals("--script") || args[0].startsWith("--script="))) {
+            String script = args[0].equals("--script") ? (args.length > 1 ? args[1] : null) : args[0].substring("--script=".length());
+            if (script == null || script.isEmpty()) throw new IllegalArgumentException("Missing file of --script.");
+            if (args.length > (args[0].equals("--script") ? 2 : 1)) throw new IllegalArgumentException("--script can't be used with other options.");
+
+            final List<String> lines;
+            try {
+                lines = Files.readAllLines(Path.of(script));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unable to read script '" + script + "': " + e.getMessage());
+            }
+
+            var jobs = new ArrayList<Job>();
+            var files = new HashSet<Path>();
+            for (int i = 0; i < lines.size(); ++i) {
+                String line = lines.get(i).trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                try {
+                    Job job = job(line.split("\\s+"));
+                    if (job.watch()) throw new IllegalArgumentException("--watch can't be used in a script.");
+                    if (job.port() != -1) throw new IllegalArgumentException("--serve can't be used in a script.");
+                    // Jobs run at the same time, so they can't write the same files.
+                    for (Path file : job.files()) {
+                        if (!files.add(file.toAbsolutePath().normalize())) {
+                            throw new IllegalArgumentException("'" + file + "' is written by another job.");
+                        }
+                    }
+                    jobs.add(job);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Line " + (i + 1) + " of script '" + script + "': " + e.getMessage());
+                }
+            }
+            if (jobs.isEmpty()) throw new IllegalArgumentException("Script '" + script + "' has no jobs.");
+            return jobs;
+        }
+
+        return List.of(job(args));
+    }
+
+    /**
+     * Parses the options of a single job.
+     *
+     * @param args The options, in the form "--option value" or "--option=value".
+     * @return The job.
+     * @throws IllegalArgumentException If an option is unknown, repeated or has an invalid value.
+     */
+    static @NotNull Job job(@NotNull String @NotNull [] args) {
+        Version base = null;
+        var excluded = new LinkedHashSet<Version>();
+        boolean noDenominator = false;
+        double similarity = -1;
+        var includedSounds = new ArrayList<String>();
+        var excludedSounds = new ArrayList<String>();
+        boolean watch = false;
+        boolean stream = false;
+        int parallelism = -1;
+        int port = -1;
+        var outputs = new LinkedHashMap<Path, SoundEmitter.Format>();
+        Path report = null;
+        Path changelog = null;
+
+        for (int i = 0; i < args.length; ++i) {
+            String option = args[i];
+            String value = null;
+            int equals = option.indexOf('=');
+
+            if (equals != -1) {
+                value = option.substring(equals + 1);
+                option = option.substring(0, equals);
+            }
+
+            switch (option) {
+                case "--no-denominator" -> {
+                    if (value != null) throw new IllegalArgumentException("--no-denominator takes no value.");
+                    noDenominator = true;
+                }
+                case "--watch" -> {
+                    if (value != null) throw new IllegalArgumentException("--watch takes no value.");
+                    watch = true;
+                }
+                case "--stream" -> {
+                    if (value != null) throw new IllegalArgumentException("--stream takes no value.");
+                    stream = true;
+                }
+                case "--base", "--exclude", "--sounds", "--skip-sounds", "--similarity", "--parallelism", "--serve", "--report", "--changelog", "--out", "--json", "--yaml", "--csv", "--java", "--attributes" -> {
+                    if (value == null) {
+                        if (i + 1 == args.length) throw new IllegalArgumentException("Missing value of " + option + ".");
+                        value = args[++i];
+                    }
+
+                    switch (option) {
+                        case "--base" -> {
+                            if (base != null) throw new IllegalArgumentException("--base was given more than once.");
+                            base = version(value);
+                        }
+                        case "--exclude" -> {
+                            for (String version : value.split(",")) {
+                                if (!version.isBlank()) excluded.add(version(version.trim()));
+                            }
+                        }
+                        case "--sounds", "--skip-sounds" -> {
+                            for (String pattern : value.split(",")) {
+                                if (!pattern.isBlank()) (option.equals("--sounds") ? includedSounds : excludedSounds).add(pattern.trim());
+                            }
+                        }
+                        case "--similarity" -> {
+                            if (similarity != -1) throw new IllegalArgumentException("--similarity was given more than once.");
+                            try {
+                                similarity = Double.parseDouble(value);
+                            } catch (NumberFormatException e) {
+                                similarity = Double.NaN;
+                            }
+                            if (!(similarity > 0 && similarity <= 1)) {
+                                throw new IllegalArgumentException("Invalid similarity '" + value + "', it must be greater than 0 and at most 1.");
+                            }
+                        }
+                        case "--parallelism" -> {
+                            if (parallelism != -1) throw new IllegalArgumentException("--parallelism was given more than once.");
+                            try {
+                                parallelism = Integer.parseInt(value);
+                            } catch (NumberFormatException e) {
+                                parallelism = 0;
+                            }
+                            if (parallelism < 1) throw new IllegalArgumentException("Invalid parallelism '" + value + "', it must be at least 1.");
+                        }
+                        case "--serve" -> {
+                            if (port != -1) throw new IllegalArgumentException("--serve was given more than once.");
+                            try {
+                                port = Integer.parseInt(value);
+                            } catch (NumberFormatException e) {
+                                port = -1;
+                            }
+                            if (port < 0 || port > 65535) throw new IllegalArgumentException("Invalid port '" + value + "'.");
+                        }
+                        case "--report" -> {
+                            if (report != null) throw new IllegalArgumentException("--report was given more than once.");
+                            if (value.isEmpty()) throw new IllegalArgumentException("Missing value of --report.");
+                            report = Path.of(value);
+                        }
+                        case "--changelog" -> {
+                            if (changelog != null) throw new IllegalArgumentException("--changelog was given more than once.");
+                            if (value.isEmpty()) throw new IllegalArgumentException("Missing value of --changelog.");
+                            changelog = Path.of(value);
+                        }
+                        default -> {
+                            if (value.isEmpty()) throw new IllegalArgumentException("Missing value of " + option + ".");
+                            SoundEmitter.Format format = option.equals("--out") ? SoundEmitter.Format.ENUM : SoundEmitter.Format.of(option.substring(2));
+                            if (outputs.put(Path.of(value), format) != null) {
+                                throw new IllegalArgumentException("'" + value + "' was given as output more than once.");
+                            }
+                        }
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown option '" + args[i] + "'.");
+            }
+        }
+
+        if (stream && (watch || port != -1)) throw new IllegalArgumentException("--stream can't be used with --watch or --serve.");
+        if (changelog != null) {
+            if (!outputs.isEmpty() || base != null || noDenominator || similarity != -1 || watch || stream || port != -1) {
+                throw new IllegalArgumentException("--changelog diffs every version instead of printing a base, so it can only be used with --exclude, --sounds, --skip-sounds and --report.");
+            }
+        } else if (port != -1) {
+            if (!outputs.isEmpty() || noDenominator || watch) {
+                throw new IllegalArgumentException("--serve answers lookups instead of printing, so it can't be used with outputs, --no-denominator or --watch.");
+            }
+        } else if (outputs.isEmpty()) {
+            outputs.put(Path.of("./output.txt"), SoundEmitter.Format.ENUM);
+        }
+
+        var sounds = includedSounds.isEmpty() && excludedSounds.isEmpty() ? SoundFilter.ALL : new SoundFilter(includedSounds, excludedSounds);
+        return new Job(base, excluded, noDenominator, sounds, Math.max(similarity, 0), outputs, report, watch, stream,
+                parallelism == -1 ? Runtime.getRuntime().availableProcessors() : parallelism, port, changelog);
+    }
+
+    private static @NotNull Version version(@NotNull String version) {
+        if (!Version.validVersion.matcher(version).matches()) {
+            throw new IllegalArgumentException("Unknown version '" + version + "'.");
+        }
+        return Version.of(version);
+    }
+
+    private static @NotNull String usage() {
+        return """
+                Usage:
+                  java -jar "Sound Finder.jar" [--base <version>] [--exclude <version>[,<version>...]] [--sounds|--skip-sounds <pattern>[,<pattern>...]] [--no-denominator] [--similarity <0-1>] [--parallelism <n>] [--out|--json|--yaml|--csv|--java|--attributes <file>...] [--report <file>] [--watch|--stream]
+                  java -jar "Sound Finder.jar" --serve <port> [--base <version>] [--exclude <version>[,<version>...]] [--sounds|--skip-sounds <pattern>[,<pattern>...]] [--similarity <0-1>] [--parallelism <n>] [--report <file>]
+                  java -jar "Sound Finder.jar" --changelog <file> [--exclude <version>[,<version>...]] [--sounds|--skip-sounds <pattern>[,<pattern>...]] [--report <file>]
+                  java -jar "Sound Finder.jar" --script <file>
+                Options:
+                  --base <version>     The version used to create the names of the enums. Optional if there is only one version.
+                  --exclude <versions> Comma separated versions to leave out of the enum constructor. May be repeated.
+                  --sounds <patterns>  Comma separated sounds of the base to generate, like block.chest.open, or prefixes ending in *,
+                                       like entity.warden.*. May be repeated. Defaults to every sound.
+                  --skip-sounds <patterns>
+                                       Comma separated sounds or prefixes ending in * to leave out. May be repeated.
+                  --no-denominator     Removes the version denominator from sound names. Needs exactly one version left.
+                  --similarity <0-1>   Finds sounds not found by name by the most similar ogg locations, if at least this Jaccard similar.
+                  --out <file>         The file to print the enum to. Defaults to 'output.txt' if no other output is given.
+                  --json <file>        The file to print a json mapping of enum names to sound names to.
+                  --yaml <file>        The file to print a yaml mapping of enum names to sound names to.
+                  --csv <file>         The file to print a table of enum names and the sound name in every version to.
+                  --java <file>        The file to print a SoundLookup class resolving sounds by enum name and packed version to.
+                  --attributes <file>  The file to print a json mapping of enum names to the oggs of the base sound and their
+                                       volume, pitch, weight and stream to.
+                  --report <file>      The file to write the times and counts of the run to, as json.
+                  --watch              Keeps running, printing the outputs again when jsons in the sounds folder change.
+                  --parallelism <n>    The amount of threads matching sounds. Defaults to the amount of processors.
+                  --serve <port>       Answers lookups of sound names over HTTP on localhost, like /name?sound=<sound>&version=<version>,
+                                       /ogg?path=<ogg location> and POST /batch with one lookup per line. Port 0 picks a free port.
+                  --changelog <file>   The file to print the sounds added, removed and renamed in each version to, as markdown.
+                  --stream             Reads and matches one version at a time, so memory doesn't grow with the amount of versions.
+                  --script <file>      Runs the jobs of a file in parallel, one line of options per job. Lines starting with # are ignored.
+                Exit status: 0 if every job was generated, 1 if a job failed, 2 if the options are invalid, 3 if the jsons could not be loaded.""";
+    }
+
+    /**
+     * A generation job.
+     *
+     * @param base          The base version, or null to use the only available version.
+     * @param excluded      The versions to leave out of the enum constructor.
+     * @param noDenominator Whether to remove the version denominator from sound names.
+     * @param sounds        The filter of the sounds of the base to generate.
+     * @param similarity    The minimum similarity of the ogg locations of sounds found by them, or 0 to only find
+     *                      sounds whose ogg locations are all in the base sound.
+     * @param outputs       The files to print the sounds to and the format of each one.
+     * @param report        The file to write the report of the run to, or null to not write one.
+     * @param watch         Whether to print the outputs again whenever jsons in the sounds folder change.
+     * @param stream        Whether to read and match one version at a time instead of loading every version first.
+     * @param parallelism   The amount of threads matching sounds.
+     * @param port          The port to answer lookups on instead of printing outputs, or -1 to print them.
+     * @param changelog     The file to print the changes of every version to instead of printing outputs, or null to
+     *                      print them.
+     */
+    record Job(@Nullable Version base, @NotNull Set<Version> excluded, boolean noDenominator, @NotNull SoundFilter sounds, double similarity,
+               @NotNull Map<Path, SoundEmitter.Format> outputs, @Nullable Path report, boolean watch, boolean stream, int parallelism, int port,
+               @Nullable Path changelog) {
+        /**
+         * @return The outputs and the report of the job.
+         */
+        @NotNull Set<Path> files() {
+            var files = new LinkedHashSet<>(targets());
+            if (report != null) files.add(report);
+            return files;
+        }
+
+        /**
+         * @return The files the job prints to, naming the job in messages.
+         */
+        @NotNull Set<Path> targets() {
+            return changelog == null ? outputs.keySet() : Set.of(changelog);
+        }
+    }
+}
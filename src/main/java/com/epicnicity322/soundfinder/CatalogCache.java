@@ -0,0 +1,219 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+
+/**
+ * Stores parsed catalogs as binary snapshots, so jsons that were already parsed once don't need to be parsed again.
+ * Snapshots are named after the SHA-256 and size of the json contents, so a changed json never hits an old snapshot.
+ * <p>
+ * A snapshot is made of a string table followed by the int arrays of the catalog, in the same layout as
+ * {@link SoundCatalog}, and the attribute columns if the catalog has them. Snapshots are memory mapped and the arrays
+ * are copied out in bulk, then their IDs are translated to the dictionary of the load in one pass. The events are only
+ * sorted again if the dictionary orders them differently than the one the snapshot was written with.
+ */
+public final class CatalogCache {
+    private static final int MAGIC = 0x53464354; // SFCT
+    private static final int FORMAT_VERSION = 2;
+    private static final @NotNull String EXTENSION = ".catalog";
+    private final @NotNull Path folder;
+
+    /**
+     * @param folder The folder to keep the snapshots in, created when the first snapshot is written.
+     */
+    public CatalogCache(@NotNull Path folder) {
+        this.folder = folder;
+    }
+
+    public @NotNull Path folder() {
+        return folder;
+    }
+
+    /**
+     * Gets the cache key of a json, made of the SHA-256 of its contents and its size.
+     *
+     * @param content The contents of the json. The position of the buffer is not changed.
+     * @return The key of the json.
+     */
+    public static @NotNull String key(@NotNull ByteBuffer content) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        int size = content.remaining();
+        digest.update(content.duplicate());
+        return HexFormat.of().formatHex(digest.digest()) + '-' + size;
+    }
+
+    /**
+     * Reads the snapshot of a json, if there is one.
+     *
+     * @param key        The {@link #key(ByteBuffer)} of the json.
+     * @param dictionary The dictionary to add the strings of the snapshot to.
+     * @return The catalog of the snapshot, or null if there is no snapshot or it's corrupted.
+     */
+    public @Nullable SoundCatalog read(@NotNull String key, @NotNull StringDictionary dictionary) {
+        Path snapshot = folder.resolve(key + EXTENSION);
+
+        if (!Files.isRegularFile(snapshot)) return null;
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) return null;
+
+            // Translating the snapshot string IDs to IDs of the dictionary.
+            var ids = new int[buffer.getInt()];
+            var bytes = new byte[256];
+            for (int i = 0; i < ids.length; ++i) {
+                int length = buffer.getInt();
+                if (bytes.length < length) bytes = new byte[length];
+                buffer.get(bytes, 0, length);
+                ids[i] = dictionary.id(new String(bytes, 0, length, StandardCharsets.UTF_8));
+            }
+
+            int eventCount = buffer.getInt();
+            int oggCount = buffer.getInt();
+            IntBuffer ints = buffer.slice().asIntBuffer();
+            int offsetsStart = eventCount;
+            int oggsStart = offsetsStart + eventCount + 1;
+            int attributesStart = oggsStart + oggCount + 1;
+
+            if (ints.remaining() < attributesStart) return null;
+            boolean attributes = ints.get(attributesStart - 1) != 0;
+            if (ints.remaining() != attributesStart + (attributes ? oggCount * 3 : 0)) return null;
+
+            var events = new int[eventCount];
+            var oggOffsets = new int[eventCount + 1];
+            var oggs = new int[oggCount];
+            ints.get(0, events).get(offsetsStart, oggOffsets).get(oggsStart, oggs);
+
+            for (int i = 0; i < eventCount; ++i) {
+                events[i] = ids[events[i]];
+                if (oggOffsets[i] > oggOffsets[i + 1]) return null;
+            }
+            if (oggOffsets[0] != 0 || oggOffsets[eventCount] != oggCount) return null;
+            for (int o = 0; o < oggCount; ++o) oggs[o] = ids[oggs[o]];
+
+            float[] volumes = null;
+            float[] pitches = null;
+            int[] weights = null;
+            if (attributes) {
+                volumes = new float[oggCount];
+                pitches = new float[oggCount];
+                weights = new int[oggCount];
+                FloatBuffer floats = buffer.slice().asFloatBuffer();
+                floats.get(attributesStart, volumes).get(attributesStart + oggCount, pitches);
+                ints.get(attributesStart + oggCount * 2, weights);
+            }
+            return SoundCatalog.of(dictionary, events, oggOffsets, oggs, volumes, pitches, weights);
+        } catch (IOException | RuntimeException e) {
+            // Corrupted snapshots are ignored and written again once the json is parsed.
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the snapshot of a json, so the json is parsed again next time.
+     *
+     * @param key The {@link #key(ByteBuffer)} of the json.
+     * @throws IOException If the snapshot exists but could not be deleted.
+     */
+    public void delete(@NotNull String key) throws IOException {
+        Files.deleteIfExists(folder.resolve(key + EXTENSION));
+    }
+
+    /**
+     * Writes the snapshot of a catalog. Failing to write is not an error, the json will be parsed again next time.
+     *
+     * @param key     The {@link #key(ByteBuffer)} of the json the catalog was parsed from.
+     * @param catalog The catalog to store.
+     */
+    public void write(@NotNull String key, @NotNull SoundCatalog catalog) {
+        // Giving the strings of this catalog their own IDs, so the snapshot does not depend on the dictionary.
+        var localIds = new HashMap<Integer, Integer>();
+        var strings = new StringDictionary();
+        int oggCount = catalog.size() == 0 ? 0 : catalog.oggEnd(catalog.size() - 1);
+
+        for (int i = 0; i < catalog.size(); ++i) {
+            localIds.computeIfAbsent(catalog.event(i), id -> strings.id(catalog.dictionary().string(id)));
+            for (int o = catalog.oggStart(i); o < catalog.oggEnd(i); ++o) {
+                localIds.computeIfAbsent(catalog.ogg(o), id -> strings.id(catalog.dictionary().string(id)));
+            }
+        }
+
+        try {
+            Files.createDirectories(folder);
+            Path temp = Files.createTempFile(folder, key, ".tmp");
+
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeInt(strings.size());
+                for (int i = 0; i < strings.size(); ++i) {
+                    byte[] bytes = strings.string(i).getBytes(StandardCharsets.UTF_8);
+                    output.writeInt(bytes.length);
+                    output.write(bytes);
+                }
+
+                output.writeInt(catalog.size());
+                output.writeInt(oggCount);
+                for (int i = 0; i < catalog.size(); ++i) output.writeInt(localIds.get(catalog.event(i)));
+                output.writeInt(0);
+                for (int i = 0; i < catalog.size(); ++i) output.writeInt(catalog.oggEnd(i));
+                for (int o = 0; o < oggCount; ++o) output.writeInt(localIds.get(catalog.ogg(o)));
+                output.writeInt(catalog.hasAttributes() ? 1 : 0);
+                if (catalog.hasAttributes()) {
+                    for (int o = 0; o < oggCount; ++o) output.writeFloat(catalog.volume(o));
+                    for (int o = 0; o < oggCount; ++o) output.writeFloat(catalog.pitch(o));
+                    for (int o = 0; o < oggCount; ++o) output.writeInt((catalog.weight(o) << 1) | (catalog.stream(o) ? 1 : 0));
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+
+            Files.move(temp, folder.resolve(key + EXTENSION), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignored) {
+        }
+    }
+}
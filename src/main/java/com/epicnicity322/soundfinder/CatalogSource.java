@@ -0,0 +1,71 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * A place sounds jsons are read from. Listing the jsons of a source is cheap, their contents are only read when the
+ * version is loaded.
+ */
+public interface CatalogSource {
+    /**
+     * Gets the source of the sounds jsons bundled in the jar: the pack written by the build, or the sounds resource
+     * folder when running from the classes of an IDE that didn't run the build.
+     *
+     * @return The source of bundled sounds jsons.
+     * @throws IOException If the bundled sounds could not be found or read.
+     */
+    static @NotNull CatalogSource bundled() throws IOException {
+        CatalogSource pack = PackCatalogSource.bundled();
+        return pack != null ? pack : FolderCatalogSource.bundled();
+    }
+
+    /**
+     * Lists the sounds jsons of this source. If a source has more than one json of the same version, the last one is
+     * used.
+     *
+     * @return The sounds jsons of this source.
+     * @throws IOException If the jsons could not be listed.
+     */
+    @NotNull List<Entry> entries() throws IOException;
+
+    /**
+     * A sounds json of a version.
+     */
+    interface Entry {
+        /**
+         * @return The name of the json, used in messages.
+         */
+        @NotNull String name();
+
+        @NotNull Version version();
+
+        /**
+         * @return The UTF-8 contents of the json.
+         * @throws IOException If the json could not be read.
+         */
+        @NotNull ByteBuffer read() throws IOException;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.IntBuffer;
+import java.util.*;
+
+/**
+ * The sounds added, removed and renamed between each version and the version before it.
+ * <p>
+ * Catalogs are sorted by event ID, so each pair of versions is diffed by a single merge of their events, and the
+ * versions are walked once, taking time linear in the size of the catalogs. A removed sound is renamed to an added one
+ * when both play the same ogg locations. Only the changed sounds are sorted by name.
+ */
+public final class Changelog {
+    private Changelog() {
+    }
+
+    /**
+     * Diffs every version against the version before it.
+     *
+     * @param versions The catalogs of the versions.
+     * @param sounds   The filter of the sounds to list. Renames are listed if either name is selected.
+     * @return The changes of every version but the first, in version order.
+     */
+    public static @NotNull List<Change> of(@NotNull SortedMap<Version, SoundCatalog> versions, @NotNull SoundFilter sounds) {
+        var changes = new ArrayList<Change>(Math.max(versions.size() - 1, 0));
+        Map.Entry<Version, SoundCatalog> previous = null;
+
+        for (Map.Entry<Version, SoundCatalog> current : versions.entrySet()) {
+            if (previous != null) {
+                changes.add(diff(previous.getKey(), previous.getValue(), current.getKey(), current.getValue(), sounds));
+            }
+            previous = current;
+        }
+        return changes;
+    }
+
+    /**
+     * Diffs two versions by merging their events, which are sorted by ID.
+     *
+     * @param from   The version before.
+     * @param before The catalog of the version before.
+     * @param to     The version after.
+     * @param after  The catalog of the version after.
+     * @param sounds The filter of the sounds to list.
+     * @return The changes from the version before to the version after.
+     */
+    static @NotNull Change diff(@NotNull Version from, @NotNull SoundCatalog before, @NotNull Version to,
+                                @NotNull SoundCatalog after, @NotNull SoundFilter sounds) {
+        // Versions with the same json share their catalog.
+        if (before == after) return new Change(from, to, List.of(), List.of(), List.of());
+        if (before.dictionary() != after.dictionary()) {
+            throw new IllegalArgumentException("The catalogs of " + from + " and " + to + " don't share a dictionary.");
+        }
+
+        var removed = new ArrayList<Integer>();
+        var added = new ArrayList<Integer>();
+        int i = 0, j = 0;
+
+        while (i < before.size() || j < after.size()) {
+            int a = i < before.size() ? before.event(i) : Integer.MAX_VALUE;
+            int b = j < after.size() ? after.event(j) : Integer.MAX_VALUE;
+
+            if (a == b) {
+                ++i;
+                ++j;
+            } else if (a < b) {
+                removed.add(i++);
+            } else {
+                added.add(j++);
+            }
+        }
+
+        removed.sort(Comparator.comparing(before::eventName));
+        added.sort(Comparator.comparing(after::eventName));
+
+        // Removed sounds by their ogg locations, in name order, so renames are paired in name order too.
+        var removedByOggs = new HashMap<IntBuffer, ArrayDeque<Integer>>();
+        for (int index : removed) {
+            int[] oggs = oggs(before, index);
+            if (oggs != null) removedByOggs.computeIfAbsent(IntBuffer.wrap(oggs), k -> new ArrayDeque<>()).add(index);
+        }
+
+        var renamedFrom = new HashSet<Integer>();
+        var addedNames = new ArrayList<String>();
+        var renamed = new ArrayList<Rename>();
+        for (int index : added) {
+            String name = after.eventName(index);
+            int[] oggs = oggs(after, index);
+            ArrayDeque<Integer> candidates = oggs == null ? null : removedByOggs.get(IntBuffer.wrap(oggs));
+
+            if (candidates != null && !candidates.isEmpty()) {
+                int old = candidates.poll();
+                String oldName = before.eventName(old);
+                renamedFrom.add(old);
+                if (sounds.test(oldName) || sounds.test(name)) renamed.add(new Rename(oldName, name));
+            } else if (sounds.test(name)) {
+                addedNames.add(name);
+            }
+        }
+
+        var removedNames = new ArrayList<String>();
+        for (int index : removed) {
+            String name = before.eventName(index);
+            if (!renamedFrom.contains(index) && sounds.test(name)) removedNames.add(name);
+        }
+
+        return new Change(from, to, addedNames, removedNames, renamed);
+    }
+
+    /**
+     * @return The distinct ogg IDs of an event in ascending order, or null if the event has no oggs.
+     */
+    private static int @Nullable [] oggs(@NotNull SoundCatalog catalog, int index) {
+        int length = catalog.oggEnd(index) - catalog.oggStart(index);
+        if (length == 0) return null;
+        var oggs = new int[length];
+        return Arrays.copyOf(oggs, SoundMatcher.distinctOggs(catalog, index, oggs));
+    }
+
+    /**
+     * Writes changes as markdown, one section for each version.
+     *
+     * @param changes The changes to write.
+     * @param writer  The writer to write to.
+     * @throws IOException If the writer fails.
+     */
+    public static void write(@NotNull List<Change> changes, @NotNull Writer writer) throws IOException {
+        writer.write("# Sound changelog\n");
+
+        for (Change change : changes) {
+            writer.write("\n## " + change.to().version() + " (from " + change.from().version() + ")\n\n");
+            if (change.isEmpty()) {
+                writer.write("No changes.\n");
+                continue;
+            }
+
+            boolean first = true;
+            if (!change.added().isEmpty()) {
+                writer.write("Added:\n");
+                for (String name : change.added()) writer.write("- `" + name + "`\n");
+                first = false;
+            }
+            if (!change.removed().isEmpty()) {
+                writer.write(first ? "Removed:\n" : "\nRemoved:\n");
+                for (String name : change.removed()) writer.write("- `" + name + "`\n");
+                first = false;
+            }
+            if (!change.renamed().isEmpty()) {
+                writer.write(first ? "Renamed:\n" : "\nRenamed:\n");
+                for (Rename rename : change.renamed()) writer.write("- `" + rename.from() + "` -> `" + rename.to() + "`\n");
+            }
+        }
+    }
+
+    /**
+     * The changes of a version.
+     *
+     * @param from    The version before.
+     * @param to      The version.
+     * @param added   The names of the sounds added, sorted.
+     * @param removed The names of the sounds removed, sorted.
+     * @param renamed The sounds renamed, sorted by their new names.
+     */
+    public record Change(@NotNull Version from, @NotNull Version to, @NotNull List<String> added,
+                         @NotNull List<String> removed, @NotNull List<Rename> renamed) {
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty() && renamed.isEmpty();
+        }
+    }
+
+    /**
+     * A sound that plays the same ogg locations under a new name.
+     *
+     * @param from The name before.
+     * @param to   The name after.
+     */
+    public record Rename(@NotNull String from, @NotNull String to) {
+    }
+}
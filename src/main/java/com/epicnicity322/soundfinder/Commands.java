@@ -18,13 +18,14 @@
 
 package com.epicnicity322.soundfinder;
 
-import com.epicnicity322.epicpluginlib.core.util.PathUtils;
 import com.epicnicity322.soundfinder.util.Back;
 import com.epicnicity322.soundfinder.util.Version;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.TreeMap;
@@ -38,15 +39,10 @@ public final class Commands {
     }
 
     public static void exit(@NotNull String[] command) {
-        if (command.length <= 1 || !command[1].equalsIgnoreCase("!delete")) {
-            System.out.println("Deleting sounds...");
-            try {
-                PathUtils.deleteAll(SoundFinder.SOUNDS_FOLDER);
-            } catch (Throwable t) { // Must exit the program even if it fails deletion.
-                System.out.println("Unable to delete '" + SoundFinder.SOUNDS_FOLDER_NAME + "' folder:");
-                t.printStackTrace();
-                System.exit(1);
-            }
+        // Sounds are read from the jar, so the sounds folder only has jsons added by the user. Removing it if empty.
+        try {
+            Files.deleteIfExists(SoundFinder.SOUNDS_FOLDER);
+        } catch (IOException ignored) {
         }
 
         System.out.println("Goodbye, happy coding!");
@@ -59,15 +55,15 @@ public final class Commands {
                 case "exit", "end", "close", "stop" -> System.out.println("""
                         Showing help of exit command >>
                           Aliases: end, close, stop
-                          Description: Exits the script and deletes sounds folder
-                          Arguments:
-                            !delete: Prevents the deletion of sounds folder.
-                          Usage: > exit [args]""");
+                          Description: Exits the script
+                          Usage: > exit""");
                 case "start", "begin" -> System.out.println("""
                         Showing help of start command >>
                           Alias: begin
                           Description: Generates a list of sounds based on jsons in sounds folder
-                          Usage: > start""");
+                          Arguments:
+                            report: Also writes the times and counts of the run to 'report.json'.
+                          Usage: > start [report]""");
                 case "help", "command", "commands" -> System.out.println("""
                         Showing help of help command >>
                           Alias: command, commands
@@ -81,18 +77,27 @@ public final class Commands {
         }
 
         System.out.println("List of available commands (Arguments enclosed in [] are optional):");
-        System.out.println("- exit [!delete] -> Exits the script and deletes 'sounds' folder");
+        System.out.println("- exit           -> Exits the script");
         System.out.println("- help [cmd]     -> Shows the list of commands or detailed help of a specific command");
-        System.out.println("- start          -> Generates a list of sounds based on jsons in sounds folder");
+        System.out.println("- start [report] -> Generates a list of sounds based on jsons in sounds folder");
         throw back;
     }
 
-    public static void start(@NotNull Scanner input) throws Back {
-        final TreeMap<String, TreeMap<String, ArrayList<String>>> availableVersions;
+    public static void start(@NotNull String[] command, @NotNull Scanner input) throws Back {
+        if (command.length > 1 && !command[1].equals("report")) {
+            System.out.println("Unknown argument '" + command[1] + "'! Type \"help start\" to see the arguments of start.");
+            throw back;
+        }
 
-        System.out.println("Reading jsons in '" + SoundFinder.SOUNDS_FOLDER_NAME + "' folder...");
+        // The report is only written when asked for, like --report of batch runs.
+        Path reportFile = command.length > 1 ? Path.of("./report.json") : null;
+        final TreeMap<Version, SoundCatalog> availableVersions;
+        RunReport.start();
+        var report = new RunReport();
+
+        System.out.println("Reading bundled jsons and jsons in '" + SoundFinder.SOUNDS_FOLDER_NAME + "' folder...");
         try {
-            availableVersions = SoundFinderManager.getAvailableVersions();
+            availableVersions = SoundFinderManager.getAvailableVersions(report);
         } catch (IOException e) {
             System.out.println("Something went wrong while getting available sound versions.");
             e.printStackTrace();
@@ -102,14 +107,14 @@ public final class Commands {
 
         if (availableVersions.isEmpty()) {
             System.out.println("It looks like there are no sound files in " + SoundFinder.SOUNDS_FOLDER_NAME + " folder.");
-            System.out.println("Please add sound files or restart the program to extract the default sounds.");
+            System.out.println("Please add sound files to the folder.");
             tryAndSleep(5000);
             throw back;
         }
         // If there is only one version, using it as base and asking to remove denominator.
         else if (availableVersions.size() == 1) {
-            for (Map.Entry<String, TreeMap<String, ArrayList<String>>> version : availableVersions.entrySet()) {
-                allSet(input, new Base(version.getKey(), version.getValue()), availableVersions, removeVersionDenominator(input, availableVersions));
+            for (Map.Entry<Version, SoundCatalog> version : availableVersions.entrySet()) {
+                allSet(input, new Base(version.getKey(), version.getValue()), availableVersions, removeVersionDenominator(input, availableVersions), report, reportFile);
                 throw back;
             }
         }
@@ -120,11 +125,11 @@ public final class Commands {
         exclude(input, availableVersions);
         // All set, asking for confirmation and creating enum.
         // If user has excluded every other version and left one, then ask if denominator should be removed.
-        allSet(input, base, availableVersions, removeVersionDenominator(input, availableVersions));
+        allSet(input, base, availableVersions, removeVersionDenominator(input, availableVersions), report, reportFile);
         throw back;
     }
 
-    private static @NotNull Base base(@NotNull Scanner input, @NotNull TreeMap<String, TreeMap<String, ArrayList<String>>> availableVersions) throws Back {
+    private static @NotNull Base base(@NotNull Scanner input, @NotNull TreeMap<Version, SoundCatalog> availableVersions) throws Back {
         System.out.println("Please input the version you would like to use as base for the enum" +
                 (firstBaseAsking ? ", that is the version that will be used to create the names of the enums, and to" +
                         " compare to sound files of other versions." : "."));
@@ -142,17 +147,17 @@ public final class Commands {
             tryAndSleep(1000);
             return base(input, availableVersions);
         }
-        TreeMap<String, ArrayList<String>> soundNames = availableVersions.get(baseVersion);
-        if (soundNames == null) {
+        SoundCatalog catalog = availableVersions.get(Version.of(baseVersion));
+        if (catalog == null) {
             System.out.println("\nUnknown version '" + baseVersion + "'\n");
             tryAndSleep(1000);
             return base(input, availableVersions);
         }
 
-        return new Base(baseVersion, soundNames);
+        return new Base(Version.of(baseVersion), catalog);
     }
 
-    private static void exclude(@NotNull Scanner input, @NotNull TreeMap<String, TreeMap<String, ArrayList<String>>> availableVersions) throws Back {
+    private static void exclude(@NotNull Scanner input, @NotNull TreeMap<Version, SoundCatalog> availableVersions) throws Back {
         if (availableVersions.size() == 1) {
             System.out.println("\nLooks like there is only one version left. Using it.\n");
             tryAndSleep(2000);
@@ -169,7 +174,7 @@ public final class Commands {
 
         if (excluding.equalsIgnoreCase("done") || excluding.equalsIgnoreCase("ready")) {
             return;
-        } else if ((!Version.validVersion.matcher(excluding).matches()) || availableVersions.remove(excluding) == null) {
+        } else if ((!Version.validVersion.matcher(excluding).matches()) || availableVersions.remove(Version.of(excluding)) == null) {
             System.out.println("\nUnknown version '" + excluding + "'");
             tryAndSleep(1000);
         }
@@ -177,7 +182,7 @@ public final class Commands {
         exclude(input, availableVersions);
     }
 
-    private static boolean removeVersionDenominator(@NotNull Scanner input, @NotNull TreeMap<String, TreeMap<String, ArrayList<String>>> availableVersions) throws Back {
+    private static boolean removeVersionDenominator(@NotNull Scanner input, @NotNull TreeMap<Version, SoundCatalog> availableVersions) throws Back {
         if (availableVersions.size() == 1) {
             System.out.println("Only one version was detected: " + availableVersions.keySet().iterator().next());
             System.out.println("Since you're creating an enum with only one version of sounds, would you like to remove the version denominator of the string at the enum constructor?");
@@ -199,7 +204,7 @@ public final class Commands {
         return false;
     }
 
-    private static void allSet(@NotNull Scanner input, @NotNull Base base, @NotNull TreeMap<String, TreeMap<String, ArrayList<String>>> versions, boolean noDenominator) throws Back {
+    private static void allSet(@NotNull Scanner input, @NotNull Base base, @NotNull TreeMap<Version, SoundCatalog> versions, boolean noDenominator, @NotNull RunReport report, @Nullable Path reportFile) throws Back {
         System.out.println("\nWe are all set! Please confirm the options:");
         tryAndSleep(500 * delayMultiplier);
         System.out.println("\n- Base for enum names: " + base.version());
@@ -221,12 +226,20 @@ public final class Commands {
         if (confirmation.equalsIgnoreCase("confirm") || confirmation.equalsIgnoreCase("ok") || confirmation.equalsIgnoreCase("proceed") || confirmation.equalsIgnoreCase("check") || confirmation.equalsIgnoreCase("yes") || confirmation.equalsIgnoreCase("okay")) {
             System.out.println("\nPrinting sound enum to 'output.txt'...");
             try {
-                SoundFinderManager.printOutput(base, versions, !noDenominator);
+                SoundFinderManager.printOutput(base, versions, !noDenominator, Map.of(Path.of("./output.txt"), SoundEmitter.Format.ENUM), report);
             } catch (IOException e) {
                 System.out.println("Unable to print 'output.txt':");
                 e.printStackTrace();
                 throw back;
             }
+            if (reportFile != null) {
+                try {
+                    report.write(reportFile);
+                    System.out.println("Times and counts of this run written to 'report.json'.");
+                } catch (IOException e) {
+                    System.out.println("Unable to write 'report.json': " + e.getMessage());
+                }
+            }
             System.out.println("\nAll done! Type 'exit' to exit the program.");
             tryAndSleep(2000);
             throw back;
@@ -237,7 +250,7 @@ public final class Commands {
             if (delayMultiplier <= 0) {
                 delayMultiplier = 0;
             }
-            allSet(input, base, versions, noDenominator);
+            allSet(input, base, versions, noDenominator, report, reportFile);
         }
     }
 
@@ -0,0 +1,81 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Writes sounds as a table with a row for each enum name and a column for each version, with the name of the sound in
+ * that version, or empty if the sound is not in the version.
+ */
+public final class CsvEmitter implements SoundEmitter {
+    private final @NotNull Writer writer;
+    private Version @NotNull [] versions = new Version[0];
+
+    public CsvEmitter(@NotNull Writer writer) {
+        this.writer = writer;
+    }
+
+    private void field(@NotNull String value) throws IOException {
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; ++i) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (quoted) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    @Override
+    public void begin(@NotNull Collection<Version> versions) throws IOException {
+        this.versions = versions.toArray(new Version[0]);
+
+        writer.write("sound");
+        for (Version version : this.versions) {
+            writer.write(',');
+            field(version.version());
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void sound(@NotNull String enumName, @NotNull SortedMap<Version, String> names,
+                      @NotNull List<Range> ranges) throws IOException {
+        field(enumName);
+        for (Version version : versions) {
+            writer.write(',');
+            String name = names.get(version);
+            if (name != null) field(name);
+        }
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Writes sounds as constants of the SoundType enum of PlayMoreSounds, like
+ * {@code AMBIENT_CAVE("1.8-1.8.9 ambient.cave.cave", "1.9-1.21.11 ambient.cave")}.
+ */
+public final class EnumEmitter implements SoundEmitter {
+    private final @NotNull Writer writer;
+    private final boolean denominator;
+    private boolean firstSound = true;
+
+    public EnumEmitter(@NotNull Writer writer, boolean denominator) {
+        this.writer = writer;
+        this.denominator = denominator;
+    }
+
+    @Override
+    public void sound(@NotNull String enumName, @NotNull SortedMap<Version, String> names,
+                      @NotNull List<Range> ranges) throws IOException {
+        if (firstSound) {
+            firstSound = false;
+        } else {
+            writer.write("),\n");
+        }
+
+        writer.write(enumName);
+        writer.write('(');
+
+        if (denominator) {
+            boolean firstRange = true;
+
+            for (Range range : ranges) {
+                if (firstRange) {
+                    firstRange = false;
+                } else {
+                    writer.write(", ");
+                }
+                writer.write('"');
+                writer.write(range.versions());
+                writer.write(' ');
+                writer.write(range.name());
+                writer.write('"');
+            }
+        } else {
+            // No denominator has only one version and only one sound name.
+            for (String name : names.values()) {
+                writer.write('"');
+                writer.write(name);
+                writer.write('"');
+            }
+        }
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.write(");");
+    }
+}
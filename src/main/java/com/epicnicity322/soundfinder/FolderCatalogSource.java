@@ -0,0 +1,127 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Sounds jsons in a folder, named as "sounds &lt;version&gt;.json". The folder may be in any file system, including the
+ * file system of the jar.
+ */
+public final class FolderCatalogSource implements CatalogSource {
+    private static @Nullable FolderCatalogSource bundled;
+    private final @NotNull Path folder;
+
+    public FolderCatalogSource(@NotNull Path folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Gets the source of the sounds jsons bundled in the jar. The jsons are read straight from the jar, or from the
+     * classes folder if not running from a jar.
+     *
+     * @return The source of bundled sounds jsons.
+     * @throws IOException If the bundled sounds folder could not be found or opened.
+     */
+    public static synchronized @NotNull FolderCatalogSource bundled() throws IOException {
+        if (bundled != null) return bundled;
+
+        URL url = FolderCatalogSource.class.getClassLoader().getResource("sounds");
+        if (url == null) throw new IOException("Could not find bundled 'sounds' resource folder.");
+
+        try {
+            URI uri = url.toURI();
+
+            if (uri.getScheme().equals("jar")) {
+                try {
+                    FileSystems.getFileSystem(uri);
+                } catch (FileSystemNotFoundException e) {
+                    FileSystems.newFileSystem(uri, Map.of());
+                }
+            }
+
+            bundled = new FolderCatalogSource(Path.of(uri));
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid location of bundled 'sounds' resource folder: " + url, e);
+        }
+
+        return bundled;
+    }
+
+    /**
+     * Gets the version of a sounds json by its file name.
+     *
+     * @param jsonName The name of the json file.
+     * @return The version of the json, or null if the name is not of a sounds json.
+     */
+    public static @Nullable Version version(@NotNull String jsonName) {
+        int extensionIndex = jsonName.lastIndexOf('.');
+        int spaceIndex = jsonName.lastIndexOf(' ');
+        if (extensionIndex == -1 || spaceIndex == -1 || spaceIndex > extensionIndex) return null;
+        if (!jsonName.endsWith(".json")) return null;
+        String version = jsonName.substring(spaceIndex + 1, extensionIndex);
+        if (!Version.validVersion.matcher(version).matches()) return null;
+        return Version.of(version);
+    }
+
+    public @NotNull Path folder() {
+        return folder;
+    }
+
+    @Override
+    public @NotNull List<Entry> entries() throws IOException {
+        if (!Files.isDirectory(folder)) return Collections.emptyList();
+
+        var entries = new ArrayList<Entry>();
+
+        try (Stream<Path> sounds = Files.list(folder)) {
+            sounds.forEach(jsonPath -> {
+                // Getting and validating version. Files that don't match will be ignored.
+                String jsonName = jsonPath.getFileName().toString();
+                Version version = version(jsonName);
+
+                if (version != null) entries.add(new FileEntry(jsonName, version, jsonPath));
+            });
+        }
+
+        return entries;
+    }
+
+    private record FileEntry(@NotNull String name, @NotNull Version version, @NotNull Path path) implements Entry {
+        @Override
+        public @NotNull ByteBuffer read() throws IOException {
+            return SoundsJsonReader.buffer(path);
+        }
+    }
+}
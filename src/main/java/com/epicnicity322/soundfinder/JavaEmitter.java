@@ -0,0 +1,305 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Writes sounds as the source of a {@code SoundLookup} class, that resolves the name of a sound in a version with one
+ * hash and one binary search, without allocating, instead of parsing the version ranges of the enum at runtime.
+ * <p>
+ * Enum names are placed by a minimal perfect hash built with hash and displace: names are spread in buckets, and each
+ * bucket gets the seed that sends its names to free slots. Each slot has the sorted intervals of its sound, as the
+ * packed first version, packed last version and name of every range. The tables are written as string literals that
+ * are decoded when the class is loaded, because array initializers of this size would not fit in a method.
+ * <p>
+ * The class has no package and no dependencies, so it can be copied into any project as {@code SoundLookup.java}.
+ */
+public final class JavaEmitter implements SoundEmitter {
+    /**
+     * The characters of each string literal, well below the limit of a constant once encoded.
+     */
+    private static final int CHUNK = 16_000;
+    private static final int BUCKET_SIZE = 4;
+    private final @NotNull Writer writer;
+    private final @NotNull ArrayList<String> keys = new ArrayList<>();
+    private final @NotNull ArrayList<int[]> intervals = new ArrayList<>();
+    private final @NotNull LinkedHashMap<String, Integer> names = new LinkedHashMap<>();
+
+    public JavaEmitter(@NotNull Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * The hash written in the generated class. Both must stay the same.
+     */
+    static int hash(@NotNull String key, int seed) {
+        int h = seed;
+        for (int i = 0; i < key.length(); ++i) h = (h ^ key.charAt(i)) * 0x01000193;
+        h ^= h >>> 15;
+        h *= 0x2C1B3C6D;
+        h ^= h >>> 12;
+        return h & 0x7FFFFFFF;
+    }
+
+    /**
+     * Packs a version in an int, keeping its order, as the generated class does.
+     *
+     * @throws IOException If the version has more than three nodes or a node too large to be packed.
+     */
+    static int pack(@NotNull Version version) throws IOException {
+        if (version.nodes() > 3 || version.node(0) > 127 || version.node(1) > 255 || version.node(2) > 255) {
+            throw new IOException("Version " + version + " can't be packed in a lookup table.");
+        }
+        return version.node(0) << 16 | version.node(1) << 8 | version.node(2);
+    }
+
+    @Override
+    public void begin(@NotNull Collection<Version> versions) throws IOException {
+        for (Version version : versions) pack(version);
+    }
+
+    @Override
+    public void sound(@NotNull String enumName, @NotNull SortedMap<Version, String> names,
+                      @NotNull List<Range> ranges) throws IOException {
+        var soundIntervals = new int[ranges.size() * 3];
+        int i = 0;
+        for (Range range : ranges) {
+            Integer name = this.names.get(range.name());
+            if (name == null) this.names.put(range.name(), name = this.names.size());
+
+            soundIntervals[i++] = pack(range.min());
+            soundIntervals[i++] = pack(range.max());
+            soundIntervals[i++] = name;
+        }
+        keys.add(enumName);
+        intervals.add(soundIntervals);
+    }
+
+    /**
+     * Finds the seed of each bucket, so every key goes to its own slot. Buckets of a single key are given the slot
+     * directly, as the negative seed -(slot + 1).
+     *
+     * @return The seeds of the buckets, followed by the key in each slot.
+     */
+    private int @NotNull [] @NotNull [] perfectHash() {
+        int size = keys.size();
+        int bucketCount = Math.max(1, size / BUCKET_SIZE);
+        var buckets = new ArrayList<List<Integer>>(bucketCount);
+        for (int b = 0; b < bucketCount; ++b) buckets.add(new ArrayList<>());
+        for (int k = 0; k < size; ++k) buckets.get(hash(keys.get(k), 0) % bucketCount).add(k);
+
+        var order = new Integer[bucketCount];
+        for (int b = 0; b < bucketCount; ++b) order[b] = b;
+        // Larger buckets first, while most slots are still free.
+        Arrays.sort(order, Comparator.comparingInt((Integer b) -> -buckets.get(b).size()).thenComparingInt(b -> b));
+
+        var seeds = new int[bucketCount];
+        var slots = new int[size];
+        Arrays.fill(slots, -1);
+        var taken = new int[BUCKET_SIZE * 8];
+        int free = 0;
+
+        for (int b : order) {
+            List<Integer> bucket = buckets.get(b);
+            if (bucket.isEmpty()) break;
+
+            if (bucket.size() == 1) {
+                while (slots[free] != -1) ++free;
+                slots[free] = bucket.get(0);
+                seeds[b] = -free - 1;
+                continue;
+            }
+
+            if (taken.length < bucket.size()) taken = new int[bucket.size()];
+            for (int seed = 1; ; ++seed) {
+                int placed = 0;
+                for (int key : bucket) {
+                    int slot = hash(keys.get(key), seed) % size;
+                    boolean collides = slots[slot] != -1;
+                    for (int t = 0; t < placed && !collides; ++t) collides = taken[t] == slot;
+                    if (collides) break;
+                    taken[placed++] = slot;
+                }
+                if (placed == bucket.size()) {
+                    for (int t = 0; t < placed; ++t) slots[taken[t]] = bucket.get(t);
+                    seeds[b] = seed;
+                    break;
+                }
+            }
+        }
+
+        return new int[][]{seeds, slots};
+    }
+
+    @Override
+    public void end() throws IOException {
+        int[][] hash = perfectHash();
+        int[] seeds = hash[0];
+        int[] slots = hash[1];
+
+        var slotKeys = new ArrayList<String>(slots.length);
+        var offsets = new int[slots.length + 1];
+        var slotIntervals = new int[intervals.stream().mapToInt(i -> i.length).sum()];
+        for (int s = 0; s < slots.length; ++s) {
+            slotKeys.add(keys.get(slots[s]));
+            int[] soundIntervals = intervals.get(slots[s]);
+            System.arraycopy(soundIntervals, 0, slotIntervals, offsets[s] * 3, soundIntervals.length);
+            offsets[s + 1] = offsets[s] + soundIntervals.length / 3;
+        }
+
+        writer.write("""
+                // Generated by Sound Finder. Do not edit.
+
+                /**
+                 * Resolves the name of a sound of PlayMoreSounds in a version of Minecraft, without allocating.
+                 */
+                public final class SoundLookup {
+                """);
+        writer.write("    private static final String[] KEYS = strings(");
+        literal(String.join("\n", slotKeys));
+        writer.write(");\n    private static final String[] NAMES = strings(");
+        literal(String.join("\n", names.keySet()));
+        writer.write(");\n    private static final int[] SEEDS = ints(");
+        ints(seeds);
+        writer.write(");\n    private static final int[] OFFSETS = ints(");
+        ints(offsets);
+        writer.write(");\n    // The packed first version, packed last version and name of each interval.\n");
+        writer.write("    private static final int[] INTERVALS = ints(");
+        ints(slotIntervals);
+        writer.write("""
+                );
+
+                    private SoundLookup() {
+                    }
+
+                    /**
+                     * Packs a version in an int, keeping its order.
+                     */
+                    public static int version(int major, int minor, int patch) {
+                        return major << 16 | minor << 8 | patch;
+                    }
+
+                    /**
+                     * Packs a version like "1.21.11". Versions with more than three nodes are cut.
+                     */
+                    public static int version(String version) {
+                        int[] nodes = new int[3];
+                        int node = 0;
+                        for (int i = 0; i < version.length() && node < 3; ++i) {
+                            char c = version.charAt(i);
+                            if (c == '.') ++node;
+                            else if (c >= '0' && c <= '9') nodes[node] = nodes[node] * 10 + c - '0';
+                            else break;
+                        }
+                        return version(nodes[0], nodes[1], nodes[2]);
+                    }
+
+                    /**
+                     * Resolves a sound in a version.
+                     *
+                     * @param sound   The enum name of the sound.
+                     * @param version The packed version.
+                     * @return The name of the sound in the version, or null if the sound is not in the version.
+                     */
+                    public static String sound(String sound, int version) {
+                        int seed = SEEDS[hash(sound, 0) % SEEDS.length];
+                        int slot = seed < 0 ? -seed - 1 : hash(sound, seed) % KEYS.length;
+                        if (!KEYS[slot].equals(sound)) return null;
+
+                        // The last interval starting at or before the version.
+                        int low = OFFSETS[slot];
+                        int high = OFFSETS[slot + 1] - 1;
+                        while (low <= high) {
+                            int middle = (low + high) >>> 1;
+                            if (INTERVALS[middle * 3] <= version) low = middle + 1;
+                            else high = middle - 1;
+                        }
+                        if (high < OFFSETS[slot] || INTERVALS[high * 3 + 1] < version) return null;
+                        return NAMES[INTERVALS[high * 3 + 2]];
+                    }
+
+                    private static int hash(String key, int seed) {
+                        int h = seed;
+                        for (int i = 0; i < key.length(); ++i) h = (h ^ key.charAt(i)) * 0x01000193;
+                        h ^= h >>> 15;
+                        h *= 0x2C1B3C6D;
+                        h ^= h >>> 12;
+                        return h & 0x7FFFFFFF;
+                    }
+
+                    private static String[] strings(String... chunks) {
+                        return String.join("", chunks).split("\\n", -1);
+                    }
+
+                    private static int[] ints(String... chunks) {
+                        String data = String.join("", chunks);
+                        int count = 0;
+                        for (int i = 0; i < data.length(); ++i) if (data.charAt(i) == ',') ++count;
+                        int[] ints = new int[data.isEmpty() ? 0 : count + 1];
+                        for (int i = 0, start = 0; i < ints.length; ++i) {
+                            int end = data.indexOf(',', start);
+                            if (end == -1) end = data.length();
+                            ints[i] = Integer.parseInt(data, start, end, 10);
+                            start = end + 1;
+                        }
+                        return ints;
+                    }
+                }
+                """);
+    }
+
+    private void ints(int @NotNull [] ints) throws IOException {
+        var data = new StringBuilder();
+        for (int i = 0; i < ints.length; ++i) {
+            if (i != 0) data.append(',');
+            data.append(ints[i]);
+        }
+        literal(data.toString());
+    }
+
+    /**
+     * Writes a string as chunks of literals, separated by commas.
+     */
+    private void literal(@NotNull String string) throws IOException {
+        for (int start = 0; start == 0 || start < string.length(); start += CHUNK) {
+            if (start != 0) writer.write(",\n            ");
+            writer.write('"');
+            for (int i = start; i < Math.min(string.length(), start + CHUNK); ++i) {
+                char c = string.charAt(i);
+                switch (c) {
+                    case '\\' -> writer.write("\\\\");
+                    case '"' -> writer.write("\\\"");
+                    case '\n' -> writer.write("\\n");
+                    case '\r' -> writer.write("\\r");
+                    default -> {
+                        if (c < 0x20 || c > 0x7E) writer.write(String.format("\\u%04x", (int) c));
+                        else writer.write(c);
+                    }
+                }
+            }
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Writes sounds as a json object of enum names to the sound name of each range of versions, like
+ * {@code "AMBIENT_CAVE": {"1.8-1.8.9": "ambient.cave.cave", "1.9-1.21.11": "ambient.cave"}}. Without denominator, the
+ * enum names are mapped straight to the sound name.
+ */
+public final class JsonEmitter implements SoundEmitter {
+    private final @NotNull Writer writer;
+    private final boolean denominator;
+    private boolean firstSound = true;
+
+    public JsonEmitter(@NotNull Writer writer, boolean denominator) {
+        this.writer = writer;
+        this.denominator = denominator;
+    }
+
+    /**
+     * Writes a string as a json string literal. Json string literals are also valid yaml double-quoted scalars.
+     *
+     * @param writer The writer to write to.
+     * @param string The string to quote.
+     * @throws IOException If the string could not be written.
+     */
+    static void quote(@NotNull Writer writer, @NotNull String string) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < string.length(); ++i) {
+            char c = string.charAt(i);
+
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    @Override
+    public void begin(@NotNull Collection<Version> versions) throws IOException {
+        writer.write('{');
+    }
+
+    @Override
+    public void sound(@NotNull String enumName, @NotNull SortedMap<Version, String> names,
+                      @NotNull List<Range> ranges) throws IOException {
+        writer.write(firstSound ? "\n  " : ",\n  ");
+        firstSound = false;
+        quote(writer, enumName);
+        writer.write(": ");
+
+        if (!denominator) {
+            quote(writer, names.get(names.firstKey()));
+            return;
+        }
+
+        writer.write('{');
+        boolean firstRange = true;
+        for (Range range : ranges) {
+            if (firstRange) {
+                firstRange = false;
+            } else {
+                writer.write(", ");
+            }
+            quote(writer, range.versions());
+            writer.write(": ");
+            quote(writer, range.name());
+        }
+        writer.write('}');
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.write("\n}\n");
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The match indexes of the catalogs, built once per catalog and shared by every {@link SoundTable} using them, so
+ * tables of many bases over the same versions don't index the versions again. Indexes can be taken from any thread.
+ * <p>
+ * Indexes are kept as long as this instance, so it should only live as long as the catalogs it indexes.
+ */
+public final class MatchIndexes {
+    // Catalogs don't override equals, so they are keyed by identity.
+    private final @NotNull ConcurrentHashMap<SoundCatalog, CompletableFuture<SoundMatcher>> matchers = new ConcurrentHashMap<>();
+    private final @NotNull ConcurrentHashMap<SoundCatalog, CompletableFuture<MinHashIndex>> minHashes = new ConcurrentHashMap<>();
+
+    /**
+     * @param catalog The catalog.
+     * @param report  The report to time the index phase in.
+     * @return A matcher of the catalog, not shared with other callers.
+     */
+    @SuppressWarnings("try")
+    public @NotNull SoundMatcher matcher(@NotNull SoundCatalog catalog, @NotNull RunReport report) {
+        try (var ignored = report.phase("index")) {
+            return get(matchers, catalog, SoundMatcher::new).share();
+        }
+    }
+
+    /**
+     * @param catalog The catalog.
+     * @param report  The report to time the minhash phase in.
+     * @return A MinHash index of the catalog, not shared with other callers.
+     */
+    @SuppressWarnings("try")
+    public @NotNull MinHashIndex minHash(@NotNull SoundCatalog catalog, @NotNull RunReport report) {
+        try (var ignored = report.phase("minhash")) {
+            return get(minHashes, catalog, MinHashIndex::new).share();
+        }
+    }
+
+    private static <T> @NotNull T get(@NotNull ConcurrentHashMap<SoundCatalog, CompletableFuture<T>> indexes,
+                                      @NotNull SoundCatalog catalog, @NotNull Function<SoundCatalog, T> builder) {
+        // The first caller builds the index, the others wait for it instead of building their own.
+        var future = new CompletableFuture<T>();
+        CompletableFuture<T> built = indexes.putIfAbsent(catalog, future);
+        if (built != null) return built.join();
+
+        try {
+            T index = builder.apply(catalog);
+            future.complete(index);
+            return index;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            indexes.remove(catalog, future);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Finds the sound of a version whose ogg locations are the most similar to the ogg locations of another sound, by
+ * Jaccard similarity. Candidates are found through locality-sensitive hashing of MinHash signatures, so looking up a
+ * sound costs time proportional to its ogg locations and the few candidates sharing a band with it, not to the size of
+ * the version. Candidates are then ranked by their exact Jaccard similarity.
+ * <p>
+ * Signatures have {@link #BANDS} bands of {@link #ROWS} hashes each, so sounds with a similarity of 0.3 are candidates
+ * of each other with a chance of 95%, and of 0.5 with a chance of over 99.9%. Instances keep scratch state between
+ * calls and are not thread safe, but {@link #share()} gives indexes for other threads without building them again.
+ */
+public final class MinHashIndex {
+    static final int BANDS = 32;
+    static final int ROWS = 2;
+    private static final int HASHES = BANDS * ROWS;
+    private static final long @NotNull [] SEEDS = new long[HASHES];
+    private static final int EVENT_BITS = 24;
+    private static final long EVENT_MASK = (1L << EVENT_BITS) - 1;
+
+    static {
+        long seed = 0x5EED5F1DL;
+        for (int i = 0; i < HASHES; ++i) SEEDS[i] = mix(seed += 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private final @NotNull SoundCatalog catalog;
+    private final int @NotNull [] @NotNull [] eventOggs;
+    // Band keys in the upper bits and event indexes in the lower bits, sorted, so the events of a band key are a range.
+    private final long @NotNull [] buckets;
+    private final long @NotNull [] signature = new long[HASHES];
+    private final boolean @NotNull [] seen;
+    private final int @NotNull [] touched;
+
+    public MinHashIndex(@NotNull SoundCatalog catalog) {
+        if (catalog.size() > EVENT_MASK) throw new IllegalArgumentException("Too many events to index: " + catalog.size());
+
+        this.catalog = catalog;
+
+        int size = catalog.size();
+        eventOggs = new int[size][];
+        seen = new boolean[size];
+        touched = new int[size];
+
+        var scratch = new int[16];
+        var bucketList = new long[size * BANDS];
+        int bucketCount = 0;
+
+        for (int i = 0; i < size; ++i) {
+            if (scratch.length < catalog.oggEnd(i) - catalog.oggStart(i)) scratch = new int[catalog.oggEnd(i) - catalog.oggStart(i)];
+            eventOggs[i] = Arrays.copyOf(scratch, SoundMatcher.distinctOggs(catalog, i, scratch));
+
+            // Sounds without oggs are not similar to anything.
+            if (eventOggs[i].length == 0) continue;
+
+            signature(eventOggs[i], eventOggs[i].length, signature);
+            for (int band = 0; band < BANDS; ++band) bucketList[bucketCount++] = (bandKey(signature, band) << EVENT_BITS) | i;
+        }
+
+        buckets = Arrays.copyOf(bucketList, bucketCount);
+        Arrays.sort(buckets);
+    }
+
+    private MinHashIndex(@NotNull MinHashIndex index) {
+        catalog = index.catalog;
+        eventOggs = index.eventOggs;
+        buckets = index.buckets;
+        seen = new boolean[index.seen.length];
+        touched = new int[index.touched.length];
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void signature(int @NotNull [] oggs, int oggCount, long @NotNull [] destination) {
+        Arrays.fill(destination, Long.MAX_VALUE);
+        for (int o = 0; o < oggCount; ++o) {
+            for (int h = 0; h < HASHES; ++h) {
+                long hash = mix(oggs[o] * SEEDS[h]);
+                if (hash < destination[h]) destination[h] = hash;
+            }
+        }
+    }
+
+    /**
+     * @return The key of a band of a signature, in the bits not used by event indexes.
+     */
+    private static long bandKey(long @NotNull [] signature, int band) {
+        long key = band;
+        for (int r = 0; r < ROWS; ++r) key = mix(key * 31 + signature[band * ROWS + r]);
+        return key >>> EVENT_BITS;
+    }
+
+    /**
+     * Computes the Jaccard similarity of two sets of distinct sorted IDs.
+     */
+    static double jaccard(int @NotNull [] a, int aCount, int @NotNull [] b, int bCount) {
+        int shared = 0;
+        for (int i = 0, j = 0; i < aCount && j < bCount; ) {
+            if (a[i] == b[j]) {
+                ++shared;
+                ++i;
+                ++j;
+            } else if (a[i] < b[j]) {
+                ++i;
+            } else {
+                ++j;
+            }
+        }
+        int union = aCount + bCount - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    /**
+     * @return An index with the signatures of this one and its own scratch state, to be used from another thread.
+     */
+    public @NotNull MinHashIndex share() {
+        return new MinHashIndex(this);
+    }
+
+    /**
+     * Looks for the sound most similar to the given ogg locations. Ties are broken by sound name.
+     *
+     * @param oggs      The distinct dictionary IDs of the ogg locations, in ascending order.
+     * @param oggCount  The amount of IDs in the oggs array to consider.
+     * @param threshold The minimum Jaccard similarity of a match.
+     * @return The match, or null if no sound is as similar as the threshold.
+     */
+    public Match match(int @NotNull [] oggs, int oggCount, double threshold) {
+        if (oggCount == 0) return null;
+
+        signature(oggs, oggCount, signature);
+
+        int best = -1;
+        double bestScore = 0;
+        int touchedCount = 0;
+
+        for (int band = 0; band < BANDS; ++band) {
+            long key = bandKey(signature, band);
+            int p = Arrays.binarySearch(buckets, key << EVENT_BITS);
+            if (p < 0) p = -p - 1;
+
+            for (; p < buckets.length && buckets[p] >>> EVENT_BITS == key; ++p) {
+                int candidate = (int) (buckets[p] & EVENT_MASK);
+                if (seen[candidate]) continue;
+
+                seen[candidate] = true;
+                touched[touchedCount++] = candidate;
+
+                double score = jaccard(oggs, oggCount, eventOggs[candidate], eventOggs[candidate].length);
+                if (score >= threshold && (best == -1 || score > bestScore
+                        || (score == bestScore && catalog.eventName(candidate).compareTo(catalog.eventName(best)) < 0))) {
+                    best = candidate;
+                    bestScore = score;
+                }
+            }
+        }
+
+        for (int i = 0; i < touchedCount; ++i) seen[touched[i]] = false;
+
+        return best == -1 ? null : new Match(catalog.event(best), bestScore);
+    }
+
+    /**
+     * A sound found by similarity.
+     *
+     * @param event      The dictionary ID of the sound name.
+     * @param similarity The Jaccard similarity of the ogg locations, from the threshold to 1.
+     */
+    public record Match(int event, double similarity) {
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Sounds jsons packed by the build into a single resource. Each json is reduced to its event names and ogg locations,
+ * identical reduced jsons are stored once, and each one is deflated on its own, so a version is inflated only when it's
+ * read.
+ * <p>
+ * The pack starts with its index, the offset, deflated size and size of each json, followed by the deflated jsons. The
+ * manifest lists the index of the json of each version, one "&lt;version&gt; &lt;index&gt;" per line.
+ */
+public final class PackCatalogSource implements CatalogSource {
+    /**
+     * The name of the pack resource.
+     */
+    public static final @NotNull String PACK = "sounds.pack";
+    /**
+     * The name of the manifest resource.
+     */
+    public static final @NotNull String MANIFEST = "sounds.versions";
+    private static final int MAGIC = 0x5346504B; // SFPK
+    private static final int FORMAT_VERSION = 1;
+    private static @Nullable PackCatalogSource bundled;
+    private final @NotNull ByteBuffer pack;
+    private final @NotNull List<Entry> entries;
+
+    /**
+     * @param pack     The contents of the pack.
+     * @param manifest The contents of the manifest.
+     * @throws IOException If the pack or the manifest are not valid.
+     */
+    public PackCatalogSource(@NotNull ByteBuffer pack, @NotNull String manifest) throws IOException {
+        this.pack = pack.asReadOnlyBuffer();
+
+        if (pack.remaining() < 12 || pack.getInt(0) != MAGIC || pack.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Invalid sounds pack.");
+        }
+        int count = pack.getInt(8);
+        var entries = new ArrayList<Entry>();
+
+        for (String line : manifest.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty()) continue;
+
+            int space = line.indexOf(' ');
+            try {
+                Version version = Version.of(line.substring(0, space));
+                int index = Integer.parseInt(line.substring(space + 1));
+                if (index < 0 || index >= count) throw new IOException("Sounds pack has no json " + index + ".");
+                entries.add(new PackEntry("sounds " + version + ".json", version, index));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IOException("Invalid line of sounds pack manifest: " + line);
+            }
+        }
+
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Gets the source of the pack bundled in the jar.
+     *
+     * @return The source of the bundled pack, or null if the jar has no pack.
+     * @throws IOException If the pack could not be read.
+     */
+    public static synchronized @Nullable PackCatalogSource bundled() throws IOException {
+        if (bundled != null) return bundled;
+
+        ClassLoader loader = PackCatalogSource.class.getClassLoader();
+        try (InputStream pack = loader.getResourceAsStream(PACK); InputStream manifest = loader.getResourceAsStream(MANIFEST)) {
+            if (pack == null || manifest == null) return null;
+            bundled = new PackCatalogSource(ByteBuffer.wrap(pack.readAllBytes()), new String(manifest.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        return bundled;
+    }
+
+    /**
+     * Packs the sounds jsons of a folder.
+     *
+     * @param folder   The folder with the jsons, named as "sounds &lt;version&gt;.json".
+     * @param pack     The file to write the pack to.
+     * @param manifest The file to write the manifest to.
+     * @return The amount of distinct reduced jsons packed.
+     * @throws IOException If a json could not be read or is malformed, or the pack could not be written.
+     */
+    public static int write(@NotNull Path folder, @NotNull Path pack, @NotNull Path manifest) throws IOException {
+        var versions = new TreeMap<Version, CatalogSource.Entry>();
+        for (CatalogSource.Entry entry : new FolderCatalogSource(folder).entries()) versions.put(entry.version(), entry);
+
+        var indexes = new HashMap<String, Integer>();
+        var jsons = new ArrayList<byte[]>();
+        var lines = new StringBuilder();
+
+        for (Map.Entry<Version, CatalogSource.Entry> version : versions.entrySet()) {
+            String reduced = reduce(version.getValue().read());
+            Integer index = indexes.get(reduced);
+
+            if (index == null) {
+                indexes.put(reduced, index = jsons.size());
+                jsons.add(reduced.getBytes(StandardCharsets.UTF_8));
+            }
+            lines.append(version.getKey()).append(' ').append(index).append('\n');
+        }
+
+        var deflated = new ArrayList<byte[]>(jsons.size());
+        var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            for (byte[] json : jsons) {
+                deflater.reset();
+                deflater.setInput(json);
+                deflater.finish();
+
+                var out = new ByteArrayOutputStream(json.length / 8);
+                var buffer = new byte[65536];
+                while (!deflater.finished()) out.write(buffer, 0, deflater.deflate(buffer));
+                deflated.add(out.toByteArray());
+            }
+        } finally {
+            deflater.end();
+        }
+
+        Files.createDirectories(pack.toAbsolutePath().getParent());
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(pack)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(jsons.size());
+
+            int offset = 12 + jsons.size() * 12;
+            for (int i = 0; i < jsons.size(); ++i) {
+                out.writeInt(offset);
+                out.writeInt(deflated.get(i).length);
+                out.writeInt(jsons.get(i).length);
+                offset += deflated.get(i).length;
+            }
+            for (byte[] json : deflated) out.write(json);
+        }
+        Files.writeString(manifest, lines);
+
+        return jsons.size();
+    }
+
+    /**
+     * Reduces a sounds json to its event names, ogg locations and the attributes of oggs that don't have the defaults,
+     * in the same order.
+     */
+    static @NotNull String reduce(@NotNull ByteBuffer json) throws IOException {
+        var reduced = new StringWriter();
+
+        reduced.write('{');
+        SoundsJsonReader.read(json, new SoundsJsonReader.Handler() {
+            private boolean firstEvent = true;
+            private boolean firstSound;
+
+            @Override
+            public void event(@NotNull String name) {
+                if (!firstEvent) reduced.write("]},");
+                firstEvent = false;
+                firstSound = true;
+                quote(reduced, name);
+                reduced.write(":{\"sounds\":[");
+            }
+
+            @Override
+            public void sound(@NotNull String name) {
+                sound(name, SoundCatalog.DEFAULT_VOLUME, SoundCatalog.DEFAULT_PITCH, SoundCatalog.DEFAULT_WEIGHT, false);
+            }
+
+            @Override
+            public void sound(@NotNull String name, float volume, float pitch, int weight, boolean stream) {
+                if (!firstSound) reduced.write(',');
+                firstSound = false;
+                if (volume == SoundCatalog.DEFAULT_VOLUME && pitch == SoundCatalog.DEFAULT_PITCH && weight == SoundCatalog.DEFAULT_WEIGHT && !stream) {
+                    quote(reduced, name);
+                    return;
+                }
+
+                reduced.write("{\"name\":");
+                quote(reduced, name);
+                if (volume != SoundCatalog.DEFAULT_VOLUME) reduced.write(",\"volume\":" + volume);
+                if (pitch != SoundCatalog.DEFAULT_PITCH) reduced.write(",\"pitch\":" + pitch);
+                if (weight != SoundCatalog.DEFAULT_WEIGHT) reduced.write(",\"weight\":" + weight);
+                if (stream) reduced.write(",\"stream\":true");
+                reduced.write('}');
+            }
+        });
+        if (reduced.getBuffer().length() > 1) reduced.write("]}");
+        reduced.write('}');
+
+        return reduced.toString();
+    }
+
+    private static void quote(@NotNull StringWriter writer, @NotNull String string) {
+        try {
+            JsonEmitter.quote(writer, string);
+        } catch (IOException e) {
+            // String writers don't throw.
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Packs the bundled sounds jsons during the build.
+     *
+     * @param args The folder of the jsons and the folder to write the pack and manifest to.
+     */
+    public static void main(@NotNull String @NotNull [] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: PackCatalogSource <sounds folder> <output folder>");
+            System.exit(2);
+        }
+
+        Path output = Path.of(args[1]);
+        int packed = write(Path.of(args[0]), output.resolve(PACK), output.resolve(MANIFEST));
+        System.out.println("Packed " + packed + " distinct sounds jsons to '" + output.resolve(PACK) + "' (" + Files.size(output.resolve(PACK)) + " bytes).");
+    }
+
+    @Override
+    public @NotNull List<Entry> entries() {
+        return entries;
+    }
+
+    private final class PackEntry implements Entry {
+        private final @NotNull String name;
+        private final @NotNull Version version;
+        private final int index;
+
+        private PackEntry(@NotNull String name, @NotNull Version version, int index) {
+            this.name = name;
+            this.version = version;
+            this.index = index;
+        }
+
+        @Override
+        public @NotNull String name() {
+            return name;
+        }
+
+        @Override
+        public @NotNull Version version() {
+            return version;
+        }
+
+        @Override
+        public @NotNull ByteBuffer read() throws IOException {
+            int header = 12 + index * 12;
+            int offset = pack.getInt(header);
+            int deflatedSize = pack.getInt(header + 4);
+            var json = new byte[pack.getInt(header + 8)];
+
+            var inflater = new Inflater();
+            try {
+                inflater.setInput(pack.slice(offset, deflatedSize));
+                int read = 0;
+                while (read < json.length && !inflater.finished()) {
+                    int inflated = inflater.inflate(json, read, json.length - read);
+                    if (inflated == 0 && inflater.needsInput()) break;
+                    read += inflated;
+                }
+                if (read != json.length) throw new IOException("Sounds pack json " + index + " is truncated.");
+            } catch (DataFormatException e) {
+                throw new IOException("Sounds pack json " + index + " is corrupted.", e);
+            } finally {
+                inflater.end();
+            }
+
+            return ByteBuffer.wrap(json);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import com.epicnicity322.soundfinder.util.Version;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Answers lookups of sound names over HTTP on the loopback address, keeping the catalogs and the tables of the bases
+ * asked for in memory. Responses are json:
+ * <ul>
+ *     <li>{@code GET /name?sound=<sound>[&version=<version>][&base=<version>]}: the names a sound of the base has in
+ *     every version, or in one version.</li>
+ *     <li>{@code GET /ogg?path=<ogg location>}: the sounds playing an ogg location in every version.</li>
+ *     <li>{@code POST /batch}: one lookup per line of the body, like {@code /name?sound=entity.zombie.ambient}, answered
+ *     as an array in the same order.</li>
+ * </ul>
+ * The table of the job base is built before serving. Tables of other bases are built on their first lookup.
+ */
+final class QueryServer {
+    private final @NotNull Batch.Job job;
+    private final @NotNull Version baseVersion;
+    private final @NotNull TreeMap<Version, SoundCatalog> availableVersions;
+    private final @NotNull TreeMap<Version, SoundCatalog> catalogs;
+    private final @NotNull StringDictionary dictionary;
+    private final @NotNull MatchIndexes indexes;
+    private final @NotNull RunReport report;
+    private final @Nullable ForkJoinPool pool;
+    private final @NotNull ConcurrentHashMap<Version, CompletableFuture<SoundTable>> tables = new ConcurrentHashMap<>();
+    // Only read once built, so lookups of oggs are not limited to one thread at a time.
+    private final @NotNull TreeMap<Version, SoundMatcher> matchers = new TreeMap<>();
+
+    /**
+     * @param job               The job with the port, the versions to leave out and the similarity of the tables.
+     * @param baseVersion       The version of the base used when lookups don't ask for one.
+     * @param availableVersions The catalogs loaded for the job, which must have the base.
+     * @param indexes           The indexes of the catalogs.
+     * @param report            The report of the load, to be completed with the matching of the tables.
+     * @param pool              The pool to build the tables in, or null to build them in the thread of the lookup.
+     */
+    QueryServer(@NotNull Batch.Job job, @NotNull Version baseVersion, @NotNull TreeMap<Version, SoundCatalog> availableVersions,
+                @NotNull MatchIndexes indexes, @NotNull RunReport report, @Nullable ForkJoinPool pool) {
+        this.job = job;
+        this.baseVersion = baseVersion;
+        this.availableVersions = new TreeMap<>(availableVersions);
+        this.catalogs = new TreeMap<>(availableVersions);
+        this.catalogs.keySet().removeAll(job.excluded());
+        this.dictionary = availableVersions.get(baseVersion).dictionary();
+        this.indexes = indexes;
+        this.report = report;
+        this.pool = pool;
+    }
+
+    /**
+     * Builds the table of the base, then serves lookups until the thread is interrupted.
+     *
+     * @return The exit status, if serving stops.
+     */
+    int run() {
+        prepare();
+
+        if (job.report() != null) {
+            try {
+                report.write(job.report());
+            } catch (IOException e) {
+                System.err.println("Unable to write report '" + job.report() + "':");
+                e.printStackTrace();
+                return Batch.JOB_FAILED;
+            }
+        }
+
+        final HttpServer server;
+        try {
+            server = start();
+        } catch (IOException e) {
+            System.err.println("Unable to serve on port " + job.port() + ":");
+            e.printStackTrace();
+            return Batch.JOB_FAILED;
+        }
+
+        System.out.println("Serving lookups of base " + baseVersion + " with versions " + catalogs.keySet() + " on http://"
+                + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/. Press Ctrl+C to stop.");
+
+        try {
+            Thread.currentThread().join();
+            return Batch.SUCCESS;
+        } catch (InterruptedException e) {
+            return Batch.SUCCESS;
+        } finally {
+            stop(server);
+        }
+    }
+
+    /**
+     * Builds the table of the base and the matchers of the versions, so the first lookups don't wait for them.
+     */
+    void prepare() {
+        table(baseVersion);
+        for (Map.Entry<Version, SoundCatalog> version : catalogs.entrySet()) {
+            matchers.put(version.getKey(), indexes.matcher(version.getValue(), report));
+        }
+    }
+
+    /**
+     * Starts answering lookups on the port of the job. {@link #prepare()} must be called first.
+     *
+     * @return The server, to be stopped by {@link #stop(HttpServer)}.
+     * @throws IOException If the port could not be bound.
+     */
+    @NotNull HttpServer start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), job.port()), 0);
+        server.setExecutor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));
+        server.createContext("/", this::handle);
+        server.start();
+        return server;
+    }
+
+    static void stop(@NotNull HttpServer server) {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdown();
+    }
+
+    private void handle(@NotNull HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getRawPath();
+            String query = exchange.getRequestURI().getRawQuery();
+            var response = new StringWriter();
+            int status;
+
+            if (path.equals("/batch")) {
+                if (!exchange.getRequestMethod().equals("POST")) {
+                    status = 405;
+                    error(response, "Batches of lookups must be posted.");
+                } else {
+                    status = 200;
+                    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    boolean first = true;
+
+                    response.write('[');
+                    for (String line : body.split("\n")) {
+                        line = line.trim();
+                        if (line.isEmpty()) continue;
+
+                        response.write(first ? "\n  " : ",\n  ");
+                        first = false;
+                        int q = line.indexOf('?');
+                        lookup(response, q == -1 ? line : line.substring(0, q), q == -1 ? null : line.substring(q + 1));
+                    }
+                    response.write("\n]");
+                }
+            } else {
+                status = lookup(response, path, query);
+            }
+
+            response.write('\n');
+            byte[] bytes = response.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    /**
+     * Answers a single lookup.
+     *
+     * @return The HTTP status of the lookup.
+     */
+    private int lookup(@NotNull Writer writer, @NotNull String path, @Nullable String query) throws IOException {
+        try {
+            Map<String, String> parameters = parameters(query);
+            return switch (path) {
+                case "/name" -> name(writer, parameters);
+                case "/ogg" -> ogg(writer, parameters);
+                default -> {
+                    error(writer, "Unknown lookup '" + path + "'. Lookups are /name, /ogg and /batch.");
+                    yield 404;
+                }
+            };
+        } catch (IllegalArgumentException e) {
+            error(writer, e.getMessage());
+            return 400;
+        }
+    }
+
+    private int name(@NotNull Writer writer, @NotNull Map<String, String> parameters) throws IOException {
+        String sound = parameter(parameters, "sound");
+        Version base = parameters.containsKey("base") ? version(parameter(parameters, "base"), availableVersions) : baseVersion;
+        Version only = parameters.containsKey("version") ? version(parameter(parameters, "version"), catalogs) : null;
+
+        int event = dictionary.find(sound);
+        if (event == -1 || availableVersions.get(base).indexOf(event) < 0) {
+            error(writer, "There is no sound '" + sound + "' in base " + base + ".");
+            return 404;
+        }
+
+        // The base of the table only has the sounds selected by the filter of the job.
+        SoundTable table = table(base);
+        int index = table.base().catalog().indexOf(event);
+        if (index < 0) {
+            error(writer, "The sound '" + sound + "' is not selected by --sounds and --skip-sounds.");
+            return 404;
+        }
+
+        writer.write("{\"sound\": ");
+        JsonEmitter.quote(writer, sound);
+        writer.write(", \"base\": ");
+        JsonEmitter.quote(writer, base.version());
+        writer.write(", \"names\": {");
+
+        boolean first = true;
+        for (Version version : only == null ? catalogs.keySet() : Set.of(only)) {
+            int match = table.match(version, index);
+            if (match == -1) continue;
+
+            if (!first) writer.write(", ");
+            first = false;
+            JsonEmitter.quote(writer, version.version());
+            writer.write(": ");
+            JsonEmitter.quote(writer, dictionary.string(match));
+        }
+        writer.write("}}");
+        return 200;
+    }
+
+    private int ogg(@NotNull Writer writer, @NotNull Map<String, String> parameters) throws IOException {
+        String ogg = parameter(parameters, "path");
+        int id = dictionary.find(ogg);
+
+        writer.write("{\"ogg\": ");
+        JsonEmitter.quote(writer, ogg);
+        writer.write(", \"events\": {");
+
+        boolean first = true;
+        if (id != -1) {
+            for (Map.Entry<Version, SoundMatcher> matcher : matchers.entrySet()) {
+                int[] events = matcher.getValue().events(id);
+                if (events.length == 0) continue;
+
+                if (!first) writer.write(", ");
+                first = false;
+                JsonEmitter.quote(writer, matcher.getKey().version());
+                writer.write(": [");
+                for (int i = 0; i < events.length; ++i) {
+                    if (i != 0) writer.write(", ");
+                    JsonEmitter.quote(writer, dictionary.string(events[i]));
+                }
+                writer.write(']');
+            }
+        }
+        writer.write("}}");
+        return 200;
+    }
+
+    /**
+     * Gets the table of a base, building it if this is its first lookup. Lookups of a base being built wait for it.
+     */
+    private @NotNull SoundTable table(@NotNull Version base) {
+        var future = new CompletableFuture<SoundTable>();
+        CompletableFuture<SoundTable> built = tables.putIfAbsent(base, future);
+        if (built != null) return built.join();
+
+        try {
+            var table = new SoundTable(new Base(base, job.sounds().apply(availableVersions.get(base))), job.similarity(), indexes);
+            table.putAll(catalogs, report, pool);
+            future.complete(table);
+            return table;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            tables.remove(base, future);
+            throw e;
+        }
+    }
+
+    private static @NotNull Version version(@NotNull String version, @NotNull TreeMap<Version, SoundCatalog> versions) {
+        // Not Version.of, so versions asked by clients are not cached for as long as the server runs.
+        Version asked;
+        try {
+            asked = new Version(version);
+        } catch (IllegalArgumentException e) {
+            asked = null;
+        }
+        if (asked == null || !versions.containsKey(asked)) {
+            throw new IllegalArgumentException("Unknown version '" + version + "'. Available sound versions: " + versions.keySet());
+        }
+        return versions.ceilingKey(asked);
+    }
+
+    private static @NotNull String parameter(@NotNull Map<String, String> parameters, @NotNull String name) {
+        String value = parameters.get(name);
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException("Missing parameter '" + name + "'.");
+        return value;
+    }
+
+    private static @NotNull Map<String, String> parameters(@Nullable String query) {
+        var parameters = new HashMap<String, String>();
+        if (query == null) return parameters;
+
+        for (String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals == -1) continue;
+            parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static void error(@NotNull Writer writer, @NotNull String message) throws IOException {
+        writer.write("{\"error\": ");
+        JsonEmitter.quote(writer, message);
+        writer.write('}');
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.OutputFile;
+import com.epicnicity322.soundfinder.util.Version;
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times the phases of a run and counts what was parsed and matched, to be written as a json report. Phases, parsed
+ * jsons and matched versions are also committed as JFR events, so they show up in flight recordings.
+ * <p>
+ * Phases are timed from the thread running the load or generation, the counters of parsed jsons may be updated from
+ * any thread.
+ */
+public final class RunReport {
+    private final @NotNull Map<String, Long> phases;
+    private final @NotNull TreeMap<Version, int[]> matches;
+    private final @NotNull TreeMap<Version, double[]> similarities;
+    private final @NotNull AtomicLong filesRead;
+    private final @NotNull AtomicLong bytesRead;
+    private final @NotNull AtomicLong filesParsed;
+    private final @NotNull AtomicLong filesShared;
+
+    public RunReport() {
+        phases = new LinkedHashMap<>();
+        matches = new TreeMap<>();
+        similarities = new TreeMap<>();
+        filesRead = new AtomicLong();
+        bytesRead = new AtomicLong();
+        filesParsed = new AtomicLong();
+        filesShared = new AtomicLong();
+    }
+
+    /**
+     * Resets the peak usage of the heap memory pools, so {@link #peakHeap()} only covers what runs after it. The pools
+     * are shared by the whole JVM, so this is called once when a run of the program starts, not for each report.
+     */
+    public static void start() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    private RunReport(@NotNull RunReport report) {
+        synchronized (report) {
+            phases = new LinkedHashMap<>(report.phases);
+            matches = new TreeMap<>(report.matches);
+            similarities = new TreeMap<>(report.similarities);
+        }
+        filesRead = new AtomicLong(report.filesRead.get());
+        bytesRead = new AtomicLong(report.bytesRead.get());
+        filesParsed = new AtomicLong(report.filesParsed.get());
+        filesShared = new AtomicLong(report.filesShared.get());
+    }
+
+    /**
+     * @return A copy of this report, so the load of many generations is reported once for each of them.
+     */
+    public @NotNull RunReport copy() {
+        return new RunReport(this);
+    }
+
+    /**
+     * Starts timing a phase. Closing the phase adds its time to the phase of the same name and commits a
+     * {@link PhaseEvent}.
+     *
+     * @param name The name of the phase.
+     * @return The phase, to be closed when it ends.
+     */
+    public @NotNull Phase phase(@NotNull String name) {
+        return new Phase(name);
+    }
+
+    /**
+     * Adds time to a phase that is too short to be timed each time it runs, like per sound work. No event is committed.
+     *
+     * @param name  The name of the phase.
+     * @param nanos The time to add, in nanoseconds.
+     */
+    public synchronized void time(@NotNull String name, long nanos) {
+        phases.merge(name, nanos, Long::sum);
+    }
+
+    /**
+     * Counts a json that was read.
+     *
+     * @param bytes  The size of the json.
+     * @param parsed Whether the json was parsed, or false if its catalog was read from a snapshot.
+     */
+    public void read(long bytes, boolean parsed) {
+        filesRead.incrementAndGet();
+        bytesRead.addAndGet(bytes);
+        if (parsed) filesParsed.incrementAndGet();
+    }
+
+    /**
+     * Counts a json that was read, but is identical to a json of another version and so shares its catalog.
+     *
+     * @param bytes The size of the json.
+     */
+    public void shared(long bytes) {
+        filesRead.incrementAndGet();
+        bytesRead.addAndGet(bytes);
+        filesShared.incrementAndGet();
+    }
+
+    /**
+     * Counts the sounds of the base matched in a version, and commits a {@link MatchEvent}.
+     *
+     * @param version   The version.
+     * @param exact     The sounds found by their name.
+     * @param ogg       The sounds found by their ogg locations.
+     * @param unmatched The sounds not found.
+     */
+    public void matched(@NotNull Version version, int exact, int ogg, int unmatched) {
+        matched(version, exact, ogg, unmatched, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Counts the sounds of the base matched in a version, along with the confidence of the ones found by the
+     * similarity of their ogg locations, and commits a {@link MatchEvent}.
+     *
+     * @param version        The version.
+     * @param exact          The sounds found by their name.
+     * @param ogg            The sounds found by their ogg locations.
+     * @param unmatched      The sounds not found.
+     * @param minSimilarity  The lowest Jaccard similarity of the sounds found by ogg locations, or NaN if they were
+     *                       not found by similarity.
+     * @param meanSimilarity The mean Jaccard similarity of the sounds found by ogg locations, or NaN if they were not
+     *                       found by similarity.
+     */
+    public synchronized void matched(@NotNull Version version, int exact, int ogg, int unmatched, double minSimilarity, double meanSimilarity) {
+        matches.put(version, new int[]{exact, ogg, unmatched});
+        if (Double.isNaN(minSimilarity)) similarities.remove(version);
+        else similarities.put(version, new double[]{minSimilarity, meanSimilarity});
+
+        var event = new MatchEvent();
+        event.version = version.version();
+        event.exact = exact;
+        event.ogg = ogg;
+        event.unmatched = unmatched;
+        event.minSimilarity = minSimilarity;
+        event.meanSimilarity = meanSimilarity;
+        event.commit();
+    }
+
+    /**
+     * @return The amount of jsons read so far, whether parsed, read from a snapshot or shared.
+     */
+    public long filesRead() {
+        return filesRead.get();
+    }
+
+    /**
+     * @return The amount of jsons parsed so far, instead of read from a snapshot or shared.
+     */
+    public long filesParsed() {
+        return filesParsed.get();
+    }
+
+    /**
+     * @return The amount of jsons identical to the json of another version, which share its catalog.
+     */
+    public long filesShared() {
+        return filesShared.get();
+    }
+
+    /**
+     * @return The versions the sounds of a base were matched against so far, in order.
+     */
+    public synchronized @NotNull Set<Version> matchedVersions() {
+        return new TreeSet<>(matches.keySet());
+    }
+
+    /**
+     * @return The time of each phase timed so far, in nanoseconds, in the order they were first timed.
+     */
+    public synchronized @NotNull Map<String, Long> phases() {
+        return new LinkedHashMap<>(phases);
+    }
+
+    /**
+     * @return The sum of the peak usage of every heap memory pool since the last {@link #start()}, or since the JVM
+     * started, in bytes. This covers the whole JVM, including other reports running at the same time.
+     */
+    public long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    /**
+     * Writes this report as json.
+     *
+     * @param path The file to write.
+     * @throws IOException If the file could not be written.
+     */
+    public synchronized void write(@NotNull Path path) throws IOException {
+        try (OutputFile file = OutputFile.open(path)) {
+            write(file.writer());
+            file.commit();
+        }
+    }
+
+    private void write(@NotNull Writer writer) throws IOException {
+        long exact = 0;
+        long ogg = 0;
+        for (int[] match : matches.values()) {
+            exact += match[0];
+            ogg += match[1];
+        }
+
+        writer.write("{\n  \"phases\": {");
+        boolean first = true;
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            writer.write(first ? "\n    " : ",\n    ");
+            first = false;
+            JsonEmitter.quote(writer, phase.getKey());
+            writer.write(": " + String.format(Locale.ROOT, "%.3f", phase.getValue() / 1_000_000.0));
+        }
+        writer.write("\n  },\n  \"phaseUnit\": \"ms\",");
+        writer.write("\n  \"filesRead\": " + filesRead.get() + ",");
+        writer.write("\n  \"bytesRead\": " + bytesRead.get() + ",");
+        writer.write("\n  \"filesParsed\": " + filesParsed.get() + ",");
+        writer.write("\n  \"filesShared\": " + filesShared.get() + ",");
+        writer.write("\n  \"snapshotsRead\": " + (filesRead.get() - filesParsed.get() - filesShared.get()) + ",");
+        writer.write("\n  \"matches\": {\"exact\": " + exact + ", \"ogg\": " + ogg + "},");
+        writer.write("\n  \"unmatched\": {");
+        first = true;
+        for (Map.Entry<Version, int[]> match : matches.entrySet()) {
+            writer.write(first ? "\n    " : ",\n    ");
+            first = false;
+            JsonEmitter.quote(writer, match.getKey().version());
+            writer.write(": " + match.getValue()[2]);
+        }
+        writer.write("\n  },");
+        if (!similarities.isEmpty()) {
+            writer.write("\n  \"similarity\": {");
+            first = true;
+            for (Map.Entry<Version, double[]> similarity : similarities.entrySet()) {
+                writer.write(first ? "\n    " : ",\n    ");
+                first = false;
+                JsonEmitter.quote(writer, similarity.getKey().version());
+                writer.write(String.format(Locale.ROOT, ": {\"min\": %.3f, \"mean\": %.3f}", similarity.getValue()[0], similarity.getValue()[1]));
+            }
+            writer.write("\n  },");
+        }
+        writer.write("\n  \"peakHeapBytes\": " + peakHeap() + "\n}\n");
+    }
+
+    /**
+     * A phase being timed.
+     */
+    public final class Phase implements AutoCloseable {
+        private final @NotNull String name;
+        private final @NotNull PhaseEvent event = new PhaseEvent();
+        private final long start = System.nanoTime();
+
+        private Phase(@NotNull String name) {
+            this.name = name;
+            event.phase = name;
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            time(name, System.nanoTime() - start);
+            event.commit();
+        }
+    }
+
+    @Name("com.epicnicity322.soundfinder.Phase")
+    @Label("Sound Finder Phase")
+    @Category("Sound Finder")
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("com.epicnicity322.soundfinder.Parse")
+    @Label("Sound Finder Parse")
+    @Category("Sound Finder")
+    static class ParseEvent extends Event {
+        @Label("Version")
+        String version;
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+        @Label("Read From Snapshot")
+        boolean snapshot;
+    }
+
+    @Name("com.epicnicity322.soundfinder.Match")
+    @Label("Sound Finder Match")
+    @Category("Sound Finder")
+    static class MatchEvent extends Event {
+        @Label("Version")
+        String version;
+        @Label("Exact Name Hits")
+        int exact;
+        @Label("Ogg Fallback Hits")
+        int ogg;
+        @Label("Unmatched")
+        int unmatched;
+        @Label("Lowest Similarity")
+        double minSimilarity;
+        @Label("Mean Similarity")
+        double meanSimilarity;
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The sound events of a version and the ogg locations each event plays. Event names and ogg locations are stored as
+ * IDs of a {@link StringDictionary} shared by all catalogs of a load, so catalogs can be compared by IDs.
+ * <p>
+ * Events are sorted by ID, and the ogg IDs of all events are stored in a single array, with the ogg IDs of the event at
+ * index {@code i} ranging from {@link #oggStart(int)} to {@link #oggEnd(int)}.
+ * <p>
+ * The volume, pitch, weight and stream of each ogg are stored in columns aligned with the ogg IDs. Most oggs have the
+ * default attributes, so the columns are only allocated for catalogs with at least one ogg that doesn't.
+ */
+public final class SoundCatalog {
+    public static final float DEFAULT_VOLUME = 1;
+    public static final float DEFAULT_PITCH = 1;
+    public static final int DEFAULT_WEIGHT = 1;
+
+    private final @NotNull StringDictionary dictionary;
+    private final int @NotNull [] events;
+    private final int @NotNull [] oggOffsets;
+    private final int @NotNull [] oggs;
+    private final float @Nullable [] volumes;
+    private final float @Nullable [] pitches;
+    /**
+     * The weight of each ogg shifted left by one, with the lowest bit set if the ogg is streamed.
+     */
+    private final int @Nullable [] weights;
+
+    private SoundCatalog(@NotNull StringDictionary dictionary, int @NotNull [] events, int @NotNull [] oggOffsets, int @NotNull [] oggs,
+                         float @Nullable [] volumes, float @Nullable [] pitches, int @Nullable [] weights) {
+        this.dictionary = dictionary;
+        this.events = events;
+        this.oggOffsets = oggOffsets;
+        this.oggs = oggs;
+        this.volumes = volumes;
+        this.pitches = pitches;
+        this.weights = weights;
+    }
+
+    /**
+     * Creates a catalog from arrays in the layout of a catalog, without copying them if the events are already sorted
+     * by ID. Otherwise, the events are sorted along with their oggs.
+     *
+     * @throws IllegalArgumentException If an event is repeated.
+     */
+    static @NotNull SoundCatalog of(@NotNull StringDictionary dictionary, int @NotNull [] events, int @NotNull [] oggOffsets,
+                                    int @NotNull [] oggs, float @Nullable [] volumes, float @Nullable [] pitches,
+                                    int @Nullable [] weights) {
+        boolean sorted = true;
+        for (int i = 1; i < events.length && sorted; ++i) sorted = events[i - 1] < events[i];
+        if (sorted) return new SoundCatalog(dictionary, events, oggOffsets, oggs, volumes, pitches, weights);
+
+        var order = new long[events.length];
+        for (int i = 0; i < events.length; ++i) order[i] = ((long) events[i] << 32) | i;
+        Arrays.sort(order);
+        for (int i = 1; i < order.length; ++i) {
+            if ((int) (order[i] >>> 32) == (int) (order[i - 1] >>> 32)) throw new IllegalArgumentException("Event " + events[(int) order[i]] + " is repeated");
+        }
+        return sort(dictionary, order, order.length, events, oggOffsets, oggs, volumes, pitches, weights);
+    }
+
+    /**
+     * Copies the events in the order of their indexes in the lowest bits of {@code order}, along with their oggs.
+     */
+    private static @NotNull SoundCatalog sort(@NotNull StringDictionary dictionary, long @NotNull [] order, int count,
+                                              int @NotNull [] events, int @NotNull [] oggOffsets, int @NotNull [] oggs,
+                                              float @Nullable [] volumes, float @Nullable [] pitches, int @Nullable [] weights) {
+        var sortedEvents = new int[count];
+        var sortedOffsets = new int[count + 1];
+        int total = 0;
+        for (int i = 0; i < count; ++i) {
+            int index = (int) order[i];
+            total += oggOffsets[index + 1] - oggOffsets[index];
+        }
+        var sortedOggs = new int[total];
+        float[] sortedVolumes = volumes == null ? null : new float[total];
+        float[] sortedPitches = volumes == null ? null : new float[total];
+        int[] sortedWeights = volumes == null ? null : new int[total];
+        int position = 0;
+
+        for (int i = 0; i < count; ++i) {
+            int index = (int) order[i];
+            int start = oggOffsets[index];
+            int length = oggOffsets[index + 1] - start;
+
+            sortedEvents[i] = events[index];
+            System.arraycopy(oggs, start, sortedOggs, position, length);
+            if (volumes != null) {
+                System.arraycopy(volumes, start, sortedVolumes, position, length);
+                System.arraycopy(pitches, start, sortedPitches, position, length);
+                System.arraycopy(weights, start, sortedWeights, position, length);
+            }
+            position += length;
+            sortedOffsets[i + 1] = position;
+        }
+
+        return new SoundCatalog(dictionary, sortedEvents, sortedOffsets, sortedOggs, sortedVolumes, sortedPitches, sortedWeights);
+    }
+
+    public @NotNull StringDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @return The amount of events in this catalog.
+     */
+    public int size() {
+        return events.length;
+    }
+
+    public boolean isEmpty() {
+        return events.length == 0;
+    }
+
+    /**
+     * @param index The index of the event, from 0 to {@link #size()}.
+     * @return The dictionary ID of the event name.
+     */
+    public int event(int index) {
+        return events[index];
+    }
+
+    public @NotNull String eventName(int index) {
+        return dictionary.string(events[index]);
+    }
+
+    /**
+     * Looks for an event in this catalog.
+     *
+     * @param event The dictionary ID of the event name.
+     * @return The index of the event, or a negative number if this catalog has no such event.
+     */
+    public int indexOf(int event) {
+        return Arrays.binarySearch(events, event);
+    }
+
+    /**
+     * @param index The index of the event.
+     * @return The position of the first ogg ID of the event.
+     */
+    public int oggStart(int index) {
+        return oggOffsets[index];
+    }
+
+    /**
+     * @param index The index of the event.
+     * @return The position after the last ogg ID of the event.
+     */
+    public int oggEnd(int index) {
+        return oggOffsets[index + 1];
+    }
+
+    /**
+     * @param position The position of the ogg, from {@link #oggStart(int)} to {@link #oggEnd(int)} of an event.
+     * @return The dictionary ID of the ogg location.
+     */
+    public int ogg(int position) {
+        return oggs[position];
+    }
+
+    public @NotNull String oggName(int position) {
+        return dictionary.string(oggs[position]);
+    }
+
+    /**
+     * @return Whether any ogg of this catalog has attributes other than the defaults.
+     */
+    public boolean hasAttributes() {
+        return volumes != null;
+    }
+
+    /**
+     * @param position The position of the ogg.
+     * @return The volume the ogg is played at.
+     */
+    public float volume(int position) {
+        return volumes == null ? DEFAULT_VOLUME : volumes[position];
+    }
+
+    /**
+     * @param position The position of the ogg.
+     * @return The pitch the ogg is played at.
+     */
+    public float pitch(int position) {
+        return pitches == null ? DEFAULT_PITCH : pitches[position];
+    }
+
+    /**
+     * @param position The position of the ogg.
+     * @return The chance of the ogg being picked, relative to the other oggs of its event.
+     */
+    public int weight(int position) {
+        return weights == null ? DEFAULT_WEIGHT : weights[position] >> 1;
+    }
+
+    /**
+     * @param position The position of the ogg.
+     * @return Whether the ogg is streamed instead of loaded whole.
+     */
+    public boolean stream(int position) {
+        return weights != null && (weights[position] & 1) != 0;
+    }
+
+    /**
+     * Collects events and their ogg locations in the order they are read, building a catalog sorted by event ID. If an
+     * event is added more than once, the last one is kept.
+     */
+    public static final class Builder implements SoundsJsonReader.Handler {
+        private final @NotNull StringDictionary dictionary;
+        private int[] events = new int[256];
+        private int[] oggOffsets = new int[257];
+        private int[] oggs = new int[1024];
+        private float[] volumes;
+        private float[] pitches;
+        private int[] weights;
+        private int eventCount = 0;
+        private int oggCount = 0;
+
+        public Builder(@NotNull StringDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public void event(@NotNull String name) {
+            event(dictionary.id(name));
+        }
+
+        @Override
+        public void sound(@NotNull String name) {
+            sound(dictionary.id(name));
+        }
+
+        @Override
+        public void sound(@NotNull String name, float volume, float pitch, int weight, boolean stream) {
+            sound(dictionary.id(name), volume, pitch, weight, stream);
+        }
+
+        /**
+         * Adds an event by its dictionary ID. Every ogg added next belongs to this event.
+         *
+         * @param event The dictionary ID of the event name.
+         */
+        public void event(int event) {
+            if (eventCount == events.length) {
+                events = Arrays.copyOf(events, eventCount * 2);
+                oggOffsets = Arrays.copyOf(oggOffsets, eventCount * 2 + 1);
+            }
+            events[eventCount] = event;
+            oggOffsets[eventCount] = oggCount;
+            oggOffsets[++eventCount] = oggCount;
+        }
+
+        /**
+         * Adds an ogg location to the last added event by its dictionary ID.
+         *
+         * @param ogg The dictionary ID of the ogg location.
+         */
+        public void sound(int ogg) {
+            sound(ogg, DEFAULT_VOLUME, DEFAULT_PITCH, DEFAULT_WEIGHT, false);
+        }
+
+        /**
+         * Adds an ogg location with its attributes to the last added event by its dictionary ID.
+         *
+         * @param ogg    The dictionary ID of the ogg location.
+         * @param volume The volume the ogg is played at.
+         * @param pitch  The pitch the ogg is played at.
+         * @param weight The chance of the ogg being picked, relative to the other oggs of the event.
+         * @param stream Whether the ogg is streamed instead of loaded whole.
+         */
+        public void sound(int ogg, float volume, float pitch, int weight, boolean stream) {
+            if (eventCount == 0) throw new IllegalStateException("Sound added before any event");
+            if (oggCount == oggs.length) {
+                oggs = Arrays.copyOf(oggs, oggCount * 2);
+                if (volumes != null) {
+                    volumes = Arrays.copyOf(volumes, oggs.length);
+                    pitches = Arrays.copyOf(pitches, oggs.length);
+                    weights = Arrays.copyOf(weights, oggs.length);
+                }
+            }
+            if (volumes == null && (volume != DEFAULT_VOLUME || pitch != DEFAULT_PITCH || weight != DEFAULT_WEIGHT || stream)) {
+                // The first ogg with attributes other than the defaults, so the oggs before it have the defaults.
+                volumes = new float[oggs.length];
+                pitches = new float[oggs.length];
+                weights = new int[oggs.length];
+                Arrays.fill(volumes, 0, oggCount, DEFAULT_VOLUME);
+                Arrays.fill(pitches, 0, oggCount, DEFAULT_PITCH);
+                Arrays.fill(weights, 0, oggCount, DEFAULT_WEIGHT << 1);
+            }
+            if (volumes != null) {
+                volumes[oggCount] = volume;
+                pitches[oggCount] = pitch;
+                weights[oggCount] = (weight << 1) | (stream ? 1 : 0);
+            }
+            oggs[oggCount++] = ogg;
+            oggOffsets[eventCount] = oggCount;
+        }
+
+        public @NotNull SoundCatalog build() {
+            // Sorting by event ID, then by order of addition, so the last duplicate of each event is the last of its run.
+            var order = new long[eventCount];
+            for (int i = 0; i < eventCount; ++i) order[i] = ((long) events[i] << 32) | i;
+            Arrays.sort(order);
+
+            int unique = 0;
+            for (int i = 0; i < eventCount; ++i) {
+                if (i + 1 == eventCount || (int) (order[i + 1] >>> 32) != (int) (order[i] >>> 32)) order[unique++] = order[i];
+            }
+
+            return sort(dictionary, order, unique, events, oggOffsets, oggs, volumes, pitches, weights);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+
+/**
+ * Writes the matched sounds in some format as they are produced, so the whole output never has to be held in memory.
+ * Sounds are given in enum name order, and only sounds found in at least one version are given.
+ */
+public interface SoundEmitter {
+    /**
+     * Groups consecutive versions with the same sound name into ranges.
+     *
+     * @param names The sound name of each version.
+     * @return The ranges, in version order.
+     */
+    static @NotNull List<Range> ranges(@NotNull SortedMap<Version, String> names) {
+        var ranges = new ArrayList<Range>();
+        Version min = null;
+        Version max = null;
+        String name = null;
+
+        for (Map.Entry<Version, String> entry : names.entrySet()) {
+            if (name != null && !name.equals(entry.getValue())) {
+                ranges.add(new Range(min, max, name));
+                name = null;
+            }
+            if (name == null) {
+                min = entry.getKey();
+                name = entry.getValue();
+            }
+            max = entry.getKey();
+        }
+        if (name != null) ranges.add(new Range(min, max, name));
+
+        return ranges;
+    }
+
+    /**
+     * Called before the first sound.
+     *
+     * @param versions The versions sounds are matched against, in order.
+     * @throws IOException If the output could not be written.
+     */
+    default void begin(@NotNull Collection<Version> versions) throws IOException {
+    }
+
+    /**
+     * Writes a sound.
+     *
+     * @param enumName The name of the sound in the base, as an enum name.
+     * @param names    The name of the sound in each version it was found.
+     * @param ranges   The {@link #ranges(SortedMap)} of the names, shared by every emitter of the sound.
+     * @throws IOException If the output could not be written.
+     */
+    void sound(@NotNull String enumName, @NotNull SortedMap<Version, String> names, @NotNull List<Range> ranges) throws IOException;
+
+    /**
+     * Called after the last sound.
+     *
+     * @throws IOException If the output could not be written.
+     */
+    default void end() throws IOException {
+    }
+
+    /**
+     * The formats sounds can be written in.
+     */
+    enum Format {
+        /**
+         * The constants of the SoundType enum of PlayMoreSounds.
+         */
+        ENUM,
+        /**
+         * A json object of enum names to the sound name of each range of versions.
+         */
+        JSON,
+        /**
+         * A yaml mapping of enum names to the sound name of each range of versions.
+         */
+        YAML,
+        /**
+         * A table of enum names to the sound name in every version.
+         */
+        CSV,
+        /**
+         * The source of a class resolving the name of a sound in a version with a perfect hash and a binary search.
+         */
+        JAVA,
+        /**
+         * A json object of enum names to the oggs of the sound in the base, with their volume, pitch, weight and
+         * stream.
+         */
+        ATTRIBUTES;
+
+        /**
+         * @param name The name of the format, ignoring case.
+         * @return The format, or null if there is no format with this name.
+         */
+        public static @Nullable Format of(@NotNull String name) {
+            for (Format format : values()) if (format.name().equalsIgnoreCase(name)) return format;
+            return null;
+        }
+
+        /**
+         * Creates an emitter of a format that only writes the names of the sounds, every format but
+         * {@link #ATTRIBUTES}.
+         *
+         * @param writer      The writer to write the sounds to.
+         * @param denominator Whether sound names are prefixed by the versions they are in. If false, only one version
+         *                    is expected.
+         * @return The emitter.
+         * @throws IllegalArgumentException If this format needs the catalog of the base.
+         * @see #emitter(Writer, boolean, SoundCatalog)
+         */
+        public @NotNull SoundEmitter emitter(@NotNull Writer writer, boolean denominator) {
+            if (this == ATTRIBUTES) throw new IllegalArgumentException("The " + this + " format needs the catalog of the base.");
+            return emitter(writer, denominator, null);
+        }
+
+        /**
+         * Creates an emitter of this format.
+         *
+         * @param writer      The writer to write the sounds to.
+         * @param denominator Whether sound names are prefixed by the versions they are in. If false, only one version
+         *                    is expected.
+         * @param base        The catalog of the base the sounds were matched from, needed by {@link #ATTRIBUTES}.
+         * @return The emitter.
+         */
+        public @NotNull SoundEmitter emitter(@NotNull Writer writer, boolean denominator, @Nullable SoundCatalog base) {
+            return switch (this) {
+                case ENUM -> new EnumEmitter(writer, denominator);
+                case JSON -> new JsonEmitter(writer, denominator);
+                case YAML -> new YamlEmitter(writer, denominator);
+                case CSV -> new CsvEmitter(writer);
+                case JAVA -> new JavaEmitter(writer);
+                case ATTRIBUTES -> new AttributesEmitter(writer, Objects.requireNonNull(base, "base"));
+            };
+        }
+    }
+
+    /**
+     * A range of versions where a sound has the same name.
+     *
+     * @param min  The first version of the range.
+     * @param max  The last version of the range, inclusive.
+     * @param name The name of the sound in these versions.
+     */
+    record Range(@NotNull Version min, @NotNull Version max, @NotNull String name) {
+        /**
+         * @return The versions of this range, as "min-max".
+         */
+        public @NotNull String versions() {
+            return min + "-" + max;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Selects sound events by name, with patterns that are either a whole event name, like {@code block.chest.open}, or a
+ * prefix ending in *, like {@code entity.warden.*}. An event is selected if it matches an included pattern, or there
+ * are no included patterns, and it matches no excluded pattern.
+ * <p>
+ * Patterns are resolved through a prefix index of the catalog, its events sorted by name, where the events of a prefix
+ * are a single range found by binary search. So matching only touches the selected events.
+ */
+public final class SoundFilter {
+    /**
+     * The filter selecting every event.
+     */
+    public static final @NotNull SoundFilter ALL = new SoundFilter(List.of(), List.of());
+
+    private final @NotNull List<String> included;
+    private final @NotNull List<String> excluded;
+
+    /**
+     * @param included The patterns of the events to select, or empty to select every event not excluded.
+     * @param excluded The patterns of the events to leave out.
+     * @throws IllegalArgumentException If a pattern is empty or has a * anywhere but at the end.
+     */
+    public SoundFilter(@NotNull List<String> included, @NotNull List<String> excluded) {
+        for (String pattern : included) validate(pattern);
+        for (String pattern : excluded) validate(pattern);
+        this.included = List.copyOf(included);
+        this.excluded = List.copyOf(excluded);
+    }
+
+    private static void validate(@NotNull String pattern) {
+        int star = pattern.indexOf('*');
+        if (pattern.isEmpty() || (star != -1 && star != pattern.length() - 1)) {
+            throw new IllegalArgumentException("Invalid sound pattern '" + pattern + "', it must be a sound name or a prefix ending in *.");
+        }
+    }
+
+    /**
+     * @return Whether this filter selects every event.
+     */
+    public boolean isAll() {
+        return included.isEmpty() && excluded.isEmpty();
+    }
+
+    /**
+     * @param name The name of an event.
+     * @return Whether the event is selected by this filter.
+     */
+    public boolean test(@NotNull String name) {
+        return (included.isEmpty() || included.stream().anyMatch(pattern -> matches(pattern, name)))
+                && excluded.stream().noneMatch(pattern -> matches(pattern, name));
+    }
+
+    private static boolean matches(@NotNull String pattern, @NotNull String name) {
+        return pattern.endsWith("*") ? name.startsWith(pattern.substring(0, pattern.length() - 1)) : name.equals(pattern);
+    }
+
+    /**
+     * Creates a catalog with only the selected events of another, sharing its dictionary.
+     *
+     * @param catalog The catalog to filter.
+     * @return The filtered catalog, or the same catalog if every event is selected.
+     */
+    public @NotNull SoundCatalog apply(@NotNull SoundCatalog catalog) {
+        if (isAll()) return catalog;
+
+        var index = new PrefixIndex(catalog);
+        var selected = new BitSet(catalog.size());
+
+        if (included.isEmpty()) selected.set(0, catalog.size());
+        for (String pattern : included) index.set(pattern, selected, true);
+        for (String pattern : excluded) index.set(pattern, selected, false);
+        if (selected.cardinality() == catalog.size()) return catalog;
+
+        var builder = new SoundCatalog.Builder(catalog.dictionary());
+        for (int i = selected.nextSetBit(0); i != -1; i = selected.nextSetBit(i + 1)) {
+            builder.event(catalog.event(i));
+            for (int position = catalog.oggStart(i); position < catalog.oggEnd(i); ++position) {
+                builder.sound(catalog.ogg(position), catalog.volume(position), catalog.pitch(position), catalog.weight(position), catalog.stream(position));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * The events of a catalog sorted by name.
+     */
+    private static final class PrefixIndex {
+        private final @NotNull String @NotNull [] names;
+        private final int @NotNull [] indexes;
+
+        PrefixIndex(@NotNull SoundCatalog catalog) {
+            var order = new Integer[catalog.size()];
+            for (int i = 0; i < order.length; ++i) order[i] = i;
+            var names = new String[order.length];
+            for (int i = 0; i < order.length; ++i) names[i] = catalog.eventName(i);
+            Arrays.sort(order, (a, b) -> names[a].compareTo(names[b]));
+
+            this.names = new String[order.length];
+            this.indexes = new int[order.length];
+            for (int i = 0; i < order.length; ++i) {
+                this.names[i] = names[order[i]];
+                this.indexes[i] = order[i];
+            }
+        }
+
+        /**
+         * Sets or clears the catalog indexes of the events matching a pattern.
+         */
+        void set(@NotNull String pattern, @NotNull BitSet bits, boolean value) {
+            boolean prefix = pattern.endsWith("*");
+            String key = prefix ? pattern.substring(0, pattern.length() - 1) : pattern;
+            int start = bound(key, false);
+            int end = prefix ? bound(key, true) : (start < names.length && names[start].equals(key) ? start + 1 : start);
+
+            for (int i = start; i < end; ++i) bits.set(indexes[i], value);
+        }
+
+        /**
+         * @return The first position whose name is not less than the key, or, past a prefix, doesn't start with it.
+         */
+        private int bound(@NotNull String key, boolean pastPrefix) {
+            int low = 0, high = names.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                String name = names[middle];
+                if (name.compareTo(key) < 0 || (pastPrefix && name.startsWith(key))) low = middle + 1;
+                else high = middle;
+            }
+            return low;
+        }
+    }
+}
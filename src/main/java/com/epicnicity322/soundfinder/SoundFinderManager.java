@@ -18,204 +18,463 @@
 
 package com.epicnicity322.soundfinder;
 
-import com.epicnicity322.epicpluginlib.core.util.PathUtils;
 import com.epicnicity322.soundfinder.util.Back;
+import com.epicnicity322.soundfinder.util.OutputFile;
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
 import com.epicnicity322.soundfinder.util.Version;
 import org.jetbrains.annotations.NotNull;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 public final class SoundFinderManager {
-    private static final @NotNull Comparator<String> versionStringComparator = Comparator.comparing(Version::new);
-
     private SoundFinderManager() {
     }
 
-    public static void printOutput(@NotNull Base base, @NotNull TreeMap<String, TreeMap<String, ArrayList<String>>> versions,
-                                   boolean denominator) throws IOException, Back {
-        var soundVersionName = new TreeMap<String, TreeMap<String, String>>();
-
-        for (Map.Entry<String, ArrayList<String>> sound : base.soundNames().entrySet()) {
-            // Looping through all versions to look for matching sounds.
-            for (Map.Entry<String, TreeMap<String, ArrayList<String>>> version : versions.entrySet()) {
-                Set<Map.Entry<String, ArrayList<String>>> sound2EntrySet = version.getValue().entrySet();
-                boolean checkAgain = true;
-
-                // Firstly, do a check of matching names.
-                for (var sound2 : sound2EntrySet) {
-                    if (sound.getKey().equals(sound2.getKey())) {
-                        soundVersionName.computeIfAbsent(sound.getKey().toUpperCase().replace('.', '_'), s -> new TreeMap<>(versionStringComparator))
-                                .put(version.getKey(), sound2.getKey());
-                        checkAgain = false;
-                        break;
-                    }
-                }
+    /**
+     * Prints the sound enum of a base to a file.
+     *
+     * @see #printOutput(Base, TreeMap, boolean, Map, RunReport)
+     */
+    public static void printOutput(@NotNull Base base, @NotNull TreeMap<Version, SoundCatalog> versions,
+                                   boolean denominator, @NotNull Path output) throws IOException, Back {
+        printOutput(base, versions, denominator, Map.of(output, SoundEmitter.Format.ENUM), new RunReport());
+    }
+
+    /**
+     * Matches the sounds of a base against the versions once, and prints them to every output.
+     *
+     * @param base        The base, whose sound names are used as enum names.
+     * @param versions    The versions to look for matching sounds.
+     * @param denominator Whether sound names are prefixed by the versions they are in.
+     * @param outputs     The files to write and the format of each one.
+     * @param report      The report to time the phases of matching and writing in.
+     * @throws IOException If an output could not be written.
+     * @throws Back        If no sounds were found, in which case no output is written.
+     * @see #printOutput(SoundTable, boolean, Map, RunReport)
+     */
+    public static void printOutput(@NotNull Base base, @NotNull TreeMap<Version, SoundCatalog> versions,
+                                   boolean denominator, @NotNull Map<Path, SoundEmitter.Format> outputs,
+                                   @NotNull RunReport report) throws IOException, Back {
+        var table = new SoundTable(base);
+        table.putAll(versions, report);
+
+        printOutput(table, denominator, outputs, report);
+    }
+
+    /**
+     * Prints the matched sounds of a table to every output, streaming each sound to the outputs as its row is built.
+     * Outputs are written to temporary files, which only replace the outputs once every sound was written.
+     *
+     * @param table       The matched sounds.
+     * @param denominator Whether sound names are prefixed by the versions they are in.
+     * @param outputs     The files to write and the format of each one.
+     * @param report      The report to time the emit and write phases in.
+     * @throws IOException If an output could not be written.
+     * @throws Back        If no sounds were found, in which case no output is written.
+     */
+    @SuppressWarnings("try")
+    public static void printOutput(@NotNull SoundTable table, boolean denominator,
+                                   @NotNull Map<Path, SoundEmitter.Format> outputs,
+                                   @NotNull RunReport report) throws IOException, Back {
+        var files = new ArrayList<OutputFile>(outputs.size());
+
+        try {
+            var emitters = new ArrayList<SoundEmitter>(outputs.size());
+
+            for (Map.Entry<Path, SoundEmitter.Format> output : outputs.entrySet()) {
+                OutputFile file = OutputFile.open(output.getKey());
+                files.add(file);
+                emitters.add(output.getValue().emitter(file.writer(), denominator, table.base().catalog()));
+            }
+
+            if (emit(table, emitters, report) == 0) {
+                System.out.println("No sounds were found.");
+                throw new Back();
+            }
 
-                // Then check if sound has the same ogg locations.
-                if (checkAgain) {
-                    for (var sound2 : sound2EntrySet) {
-                        if (!sound.getValue().isEmpty() && !sound2.getValue().isEmpty() && sound.getValue().containsAll(sound2.getValue())) {
-                            soundVersionName.computeIfAbsent(sound.getKey().toUpperCase().replace('.', '_'), s -> new TreeMap<>(versionStringComparator))
-                                    .put(version.getKey(), sound2.getKey());
-                            break;
-                        }
-                    }
+            try (var ignored = report.phase("write")) {
+                for (SoundEmitter emitter : emitters) emitter.end();
+                for (OutputFile file : files) {
+                    boolean replacing = Files.exists(file.path());
+                    file.commit();
+                    if (replacing) System.out.println("Previous '" + file.path().getFileName() + "' replaced.");
                 }
             }
+        } finally {
+            for (OutputFile file : files) file.close();
         }
+    }
 
-        if (soundVersionName.isEmpty()) {
-            System.out.println("No sounds were found.");
-            throw new Back();
+    /**
+     * Begins the emitters and gives them every matched sound of a table, without ending them, so the caller can still
+     * drop their output if no sounds were found.
+     *
+     * @param table    The matched sounds.
+     * @param emitters The emitters to give the sounds to.
+     * @param report   The report to time the emit phase in.
+     * @return The amount of sounds given to the emitters.
+     * @throws IOException If an emitter fails.
+     */
+    @SuppressWarnings("try")
+    public static int emit(@NotNull SoundTable table, @NotNull List<SoundEmitter> emitters, @NotNull RunReport report) throws IOException {
+        for (SoundEmitter emitter : emitters) emitter.begin(table.versions());
+
+        try (var ignored = report.phase("emit")) {
+            return table.rows((enumName, names) -> {
+                long start = System.nanoTime();
+                List<SoundEmitter.Range> ranges = SoundEmitter.ranges(names);
+                report.time("ranges", System.nanoTime() - start);
+
+                for (SoundEmitter emitter : emitters) emitter.sound(enumName, names, ranges);
+            });
         }
+    }
 
-        var builder = new StringBuilder();
-        boolean firstIteration = true;
+    /**
+     * Loads the sounds jsons bundled in the jar, overridden by the ones the user added to the sounds folder.
+     *
+     * @return The catalogs of every available version.
+     * @throws IOException If the jsons could not be listed.
+     */
+    public static @NotNull TreeMap<Version, SoundCatalog> getAvailableVersions() throws IOException {
+        return getAvailableVersions(new RunReport());
+    }
 
-        for (Map.Entry<String, TreeMap<String, String>> soundEntry : soundVersionName.entrySet()) {
-            if (firstIteration) {
-                firstIteration = false;
-            } else {
-                builder.append("),\n");
-            }
+    /**
+     * Loads the sounds jsons bundled in the jar, overridden by the ones the user added to the sounds folder.
+     *
+     * @param report The report to time the list and parse phases in, and count the jsons read.
+     * @return The catalogs of every available version.
+     * @throws IOException If the jsons could not be listed.
+     */
+    public static @NotNull TreeMap<Version, SoundCatalog> getAvailableVersions(@NotNull RunReport report) throws IOException {
+        return getAvailableVersions(sources(), report);
+    }
 
-            builder.append(soundEntry.getKey()).append("(");
-
-            if (denominator) {
-                String previousSound = "";
-                String previousVersion = "";
-                String minVersion = "";
-                Set<Map.Entry<String, String>> entrySet = soundEntry.getValue().entrySet();
-                int i = 0;
-                var versionsAndSound = new LinkedHashMap<String, String>();
-
-                for (Map.Entry<String, String> versionEntry : soundEntry.getValue().entrySet()) {
-                    String version = versionEntry.getKey();
-                    String sound = versionEntry.getValue();
-
-                    // If there's only one version.
-                    if (entrySet.size() == 1) {
-                        versionsAndSound.put(version + "-" + version, sound);
-                        // Finish it up on last version entry.
-                    } else if (++i == entrySet.size()) {
-                        if (previousSound.equals(sound)) {
-                            versionsAndSound.put(minVersion + "-" + version, previousSound);
-                        } else {
-                            versionsAndSound.put(minVersion + "-" + previousVersion, previousSound);
-                            versionsAndSound.put(version + "-" + version, sound);
-                        }
-                    } else {
-                        if (minVersion.isEmpty()) minVersion = version;
-                        if (previousSound.isEmpty()) {
-                            previousSound = sound;
-                        } else {
-                            if (!previousSound.equals(sound)) {
-                                versionsAndSound.put(minVersion + "-" + previousVersion, previousSound);
-                                previousSound = sound;
-                                minVersion = version;
-                            }
-                        }
-
-                        previousVersion = version;
-                    }
-                }
+    /**
+     * @return The jsons bundled in the jar, if they can be listed, followed by the sounds folder.
+     */
+    public static @NotNull List<CatalogSource> sources() {
+        var sources = new ArrayList<CatalogSource>(2);
 
-                boolean firstVersion = true;
-                for (Map.Entry<String, String> versionAndSound : versionsAndSound.entrySet()) {
-                    if (firstVersion) {
-                        firstVersion = false;
-                    } else {
-                        builder.append(", ");
-                    }
-                    builder.append('"').append(versionAndSound.getKey()).append(' ').append(versionAndSound.getValue()).append('"');
-                }
-            } else {
-                // No denominator has only one version and only one sound name.
-                for (Map.Entry<String, String> versionEntry : soundEntry.getValue().entrySet()) {
-                    builder.append('"').append(versionEntry.getValue()).append('"');
-                }
-            }
+        try {
+            sources.add(CatalogSource.bundled());
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
         }
+        sources.add(new FolderCatalogSource(SoundFinder.SOUNDS_FOLDER));
+        return sources;
+    }
 
-        builder.append(");");
+    /**
+     * Loads the sounds jsons of the sources. When more than one source has a json of the same version, the json of the
+     * last source is used.
+     *
+     * @param sources The sources to load the jsons from.
+     * @return The catalogs of every available version.
+     * @throws IOException If the jsons of a source could not be listed.
+     */
+    public static @NotNull TreeMap<Version, SoundCatalog> getAvailableVersions(@NotNull List<CatalogSource> sources) throws IOException {
+        return getAvailableVersions(sources, new RunReport());
+    }
 
-        Path output = Path.of("./output.txt");
+    /**
+     * Loads the sounds jsons of the sources, using the snapshots of the cache folder. When more than one source has a
+     * json of the same version, the json of the last source is used.
+     *
+     * @param sources The sources to load the jsons from.
+     * @param report  The report to time the list and parse phases in, and count the jsons read.
+     * @return The catalogs of every available version.
+     * @throws IOException If the jsons of a source could not be listed.
+     */
+    public static @NotNull TreeMap<Version, SoundCatalog> getAvailableVersions(@NotNull List<CatalogSource> sources,
+                                                                               @NotNull RunReport report) throws IOException {
+        return getAvailableVersions(sources, report, new CatalogCache(SoundFinder.CACHE_FOLDER));
+    }
 
-        if (Files.deleteIfExists(output)) {
-            System.out.println("Previous 'output.txt' deleted.");
+    /**
+     * Loads the sounds jsons of the sources. When more than one source has a json of the same version, the json of the
+     * last source is used.
+     *
+     * @param sources The sources to load the jsons from.
+     * @param report  The report to time the list and parse phases in, and count the jsons read.
+     * @param cache   The cache to read and write the snapshots of the jsons in, or null to always parse them.
+     * @return The catalogs of every available version.
+     * @throws IOException If the jsons of a source could not be listed.
+     */
+    public static @NotNull TreeMap<Version, SoundCatalog> getAvailableVersions(@NotNull List<CatalogSource> sources,
+                                                                               @NotNull RunReport report,
+                                                                               @Nullable CatalogCache cache) throws IOException {
+        return getAvailableVersions(sources, report, cache, name -> System.err.println("Unable to parse '" + name + "' as a json."), null);
+    }
+
+    /**
+     * Loads the sounds jsons of the sources. When more than one source has a json of the same version, the json of the
+     * last source is used.
+     *
+     * @param sources    The sources to load the jsons from.
+     * @param report     The report to time the list and parse phases in, and count the jsons read.
+     * @param cache      The cache to read and write the snapshots of the jsons in, or null to always parse them.
+     * @param unparsable Receives the names of the jsons that could not be parsed, in listing order.
+     * @param keys       Receives the {@link CatalogCache#key(ByteBuffer)} of the json of each loaded version, or null.
+     * @return The catalogs of every available version.
+     * @throws IOException If the jsons of a source could not be listed.
+     */
+    @SuppressWarnings("try")
+    static @NotNull TreeMap<Version, SoundCatalog> getAvailableVersions(@NotNull List<CatalogSource> sources, @NotNull RunReport report,
+                                                                        @Nullable CatalogCache cache, @NotNull Consumer<String> unparsable,
+                                                                        @Nullable Map<Version, String> keys) throws IOException {
+        var map = new TreeMap<Version, SoundCatalog>();
+        var entries = entries(sources, report);
+
+        // All catalogs share the same dictionary, so their sound names and ogg locations can be compared by ID.
+        var dictionary = new StringDictionary();
+        // Versions with identical jsons share the catalog of the first one to be parsed.
+        var catalogs = new ConcurrentHashMap<String, CompletableFuture<SoundCatalog>>();
+
+        // Each json is parsed on its own fork join worker. The parallel stream keeps the listing order, so results
+        // are merged and errors are reported in the same order as if they were parsed one by one.
+        final List<ParsedJson> parsedJsons;
+        try (var ignored = report.phase("parse")) {
+            parsedJsons = entries.values().parallelStream().map(entry -> parse(entry, dictionary, report, catalogs, cache)).toList();
         }
 
-        PathUtils.write(builder.toString(), output);
+        for (ParsedJson parsed : parsedJsons) {
+            if (parsed.catalog() == null) {
+                unparsable.accept(parsed.name());
+            } else {
+                map.put(parsed.version(), parsed.catalog());
+                if (keys != null) keys.put(parsed.version(), parsed.key());
+            }
+        }
+
+        return map;
     }
 
-    public static @NotNull TreeMap<String, TreeMap<String, ArrayList<String>>> getAvailableVersions() throws IOException {
-        var map = new TreeMap<String, TreeMap<String, ArrayList<String>>>(versionStringComparator);
-        var parser = new JSONParser();
+    /**
+     * Matches the sounds of a base against the jsons of the sources one version at a time, so only the base, the
+     * version being matched and the next version being read are in memory, no matter how many versions there are.
+     * Versions with the same json as the version before them share its column. Jsons that can't be parsed are
+     * reported and skipped.
+     *
+     * @param sources     The sources to load the jsons from, the last one overriding the others.
+     * @param baseVersion The version of the base.
+     * @param excluded    The versions to leave out of the table.
+     * @param sounds      The filter of the sounds of the base to match.
+     * @param similarity  The similarity of the table, see {@link SoundTable#SoundTable(Base, double)}.
+     * @param pool        The pool matching the sounds of the base against each version, reused for every version, or
+     *                    null to match in this thread.
+     * @param report      The report to time the list, parse, index, exact and fallback phases in.
+     * @param cache       The cache to read and write the snapshots of the jsons in, or null to always parse them.
+     * @return The table of the base.
+     * @throws IOException              If the jsons could not be listed or the base could not be parsed.
+     * @throws IllegalArgumentException If the base or an excluded version is not available.
+     */
+    @SuppressWarnings("try")
+    public static @NotNull SoundTable streamTable(@NotNull List<CatalogSource> sources, @NotNull Version baseVersion,
+                                                  @NotNull Set<Version> excluded, @NotNull SoundFilter sounds,
+                                                  double similarity, @Nullable ForkJoinPool pool, @NotNull RunReport report,
+                                                  @Nullable CatalogCache cache) throws IOException {
+        var entries = new TreeMap<>(entries(sources, report));
+
+        for (Version version : excluded) {
+            if (!entries.containsKey(version)) throw new IllegalArgumentException("Unknown version '" + version + "' to exclude.");
+        }
+        CatalogSource.Entry baseEntry = entries.get(baseVersion);
+        if (baseEntry == null) {
+            throw new IllegalArgumentException("Unknown base version '" + baseVersion + "'. Available sound versions: " + entries.keySet());
+        }
+        entries.keySet().removeAll(excluded);
+
+        var dictionary = new StringDictionary();
+        final SoundCatalog baseCatalog;
+        final String baseKey;
+        try (var ignored = report.phase("parse")) {
+            ByteBuffer json = baseEntry.read();
+            baseKey = CatalogCache.key(json);
+            baseCatalog = getCatalog(baseVersion, json, baseKey, dictionary, report, cache);
+        }
+        var table = new SoundTable(new Base(baseVersion, sounds.apply(baseCatalog)), similarity);
 
-        if (!Files.isDirectory(SoundFinder.SOUNDS_FOLDER)) return map;
+        var base = new StreamedJson(baseEntry.name(), baseVersion, baseCatalog, baseKey);
+        Iterator<CatalogSource.Entry> iterator = entries.values().iterator();
+        CompletableFuture<StreamedJson> next = iterator.hasNext() ? stream(iterator.next(), base, null, dictionary, report, cache) : null;
+        StreamedJson previous = null;
 
-        try (Stream<Path> sounds = Files.list(SoundFinder.SOUNDS_FOLDER)) {
-            sounds.filter(file -> file.toString().endsWith(".json")).forEach(jsonPath -> {
-                // Getting and validating version. Files that don't match will be ignored.
-                String jsonName = jsonPath.getFileName().toString();
-                int extensionIndex = jsonName.lastIndexOf('.');
-                int spaceIndex = jsonName.lastIndexOf(' ');
-                if (extensionIndex == -1 || spaceIndex == -1) return;
-                String version = jsonName.substring(spaceIndex + 1, extensionIndex);
-                if (!Version.validVersion.matcher(version).matches()) return;
+        while (next != null) {
+            final StreamedJson current;
+            try (var ignored = report.phase("parse")) {
+                current = next.join();
+            }
 
-                // Parsing file as json.
-                final JSONObject json;
-                try (FileReader reader = new FileReader(jsonPath.toFile())) {
-                    json = (JSONObject) parser.parse(reader);
-                } catch (ParseException | IOException e) {
-                    System.err.println("Unable to parse '" + jsonName + "' as a json.");
-                    return;
-                }
+            if (current.catalog() == null) {
+                System.err.println("Unable to parse '" + current.name() + "' as a json.");
+                next = iterator.hasNext() ? stream(iterator.next(), base, previous, dictionary, report, cache) : null;
+                continue;
+            }
 
-                // Finally adding the sound names and ogg file locations to the version map.
-                map.put(version, getSoundNamesAndOggArray(json));
-            });
+            // Reading the next json while the current one is matched.
+            next = iterator.hasNext() ? stream(iterator.next(), base, current, dictionary, report, cache) : null;
+
+            // The table keeps the catalogs it matched to share their columns, so the catalog of the version before is
+            // released once it's no longer shared, and its memory can be taken back.
+            if (previous != null && previous.catalog() != current.catalog() && previous.catalog() != baseCatalog) {
+                table.release(previous.catalog());
+            }
+            table.put(current.version(), current.catalog(), report, pool);
+            previous = current;
         }
 
-        return map;
+        return table;
     }
 
-    private static @NotNull TreeMap<String, ArrayList<String>> getSoundNamesAndOggArray(@NotNull JSONObject json) {
-        var soundNames = new TreeMap<String, ArrayList<String>>();
+    /**
+     * Reads the json of a version in the background, sharing the catalog of the base or of the version before if
+     * their jsons are identical.
+     */
+    private static @NotNull CompletableFuture<StreamedJson> stream(@NotNull CatalogSource.Entry entry, @NotNull StreamedJson base,
+                                                                   @Nullable StreamedJson previous,
+                                                                   @NotNull StringDictionary dictionary, @NotNull RunReport report,
+                                                                   @Nullable CatalogCache cache) {
+        if (entry.version().equals(base.version())) return CompletableFuture.completedFuture(base);
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                ByteBuffer json = entry.read();
+                String key = CatalogCache.key(json);
+                SoundCatalog catalog;
+
+                if (key.equals(base.key())) {
+                    catalog = base.catalog();
+                } else if (previous != null && key.equals(previous.key())) {
+                    catalog = previous.catalog();
+                } else {
+                    catalog = null;
+                }
 
-        for (Object entry : json.entrySet()) {
-            var soundEntry = (Map.Entry<?, ?>) entry;
-            var soundOggs = new ArrayList<String>();
-            var child = (JSONObject) soundEntry.getValue();
+                if (catalog != null) report.shared(json.remaining());
+                else catalog = getCatalog(entry.version(), json, key, dictionary, report, cache);
+                return new StreamedJson(entry.name(), entry.version(), catalog, key);
+            } catch (IOException e) {
+                return new StreamedJson(entry.name(), entry.version(), null, null);
+            }
+        });
+    }
 
-            if (child.get("sounds") instanceof JSONArray oggLocationArray) {
-                for (Object oggLocation : oggLocationArray) {
-                    // Some sounds have specific pitch and volume, so looking for ogg under "name" key.
-                    if (oggLocation instanceof JSONObject obj) {
-                        if (obj.containsKey("name")) soundOggs.add(obj.get("name").toString());
-                    } else {
-                        soundOggs.add(oggLocation.toString());
-                    }
-                }
-            } else {
-                // Does not have "sounds" ogg locations array, aka: not a real sound.
-                // Should not happen if it's a default sound resource.
-                continue;
+    /**
+     * Lists the jsons of the sources, the jsons of the last sources overriding the ones of the same version before.
+     */
+    @SuppressWarnings("try")
+    private static @NotNull LinkedHashMap<Version, CatalogSource.Entry> entries(@NotNull List<CatalogSource> sources,
+                                                                                @NotNull RunReport report) throws IOException {
+        var entries = new LinkedHashMap<Version, CatalogSource.Entry>();
+
+        try (var ignored = report.phase("list")) {
+            for (CatalogSource source : sources) {
+                for (CatalogSource.Entry entry : source.entries()) entries.put(entry.version(), entry);
             }
-            soundNames.put(soundEntry.getKey().toString(), soundOggs);
         }
+        return entries;
+    }
+
+    private static @NotNull ParsedJson parse(@NotNull CatalogSource.Entry entry, @NotNull StringDictionary dictionary,
+                                             @NotNull RunReport report,
+                                             @NotNull ConcurrentHashMap<String, CompletableFuture<SoundCatalog>> catalogs,
+                                             @Nullable CatalogCache cache) {
+        try {
+            ByteBuffer json = entry.read();
+            String key = CatalogCache.key(json);
+            var catalog = new CompletableFuture<SoundCatalog>();
+            CompletableFuture<SoundCatalog> shared = catalogs.putIfAbsent(key, catalog);
+
+            // An identical json was already claimed by another version, waiting for its catalog.
+            if (shared != null) {
+                SoundCatalog sharedCatalog = shared.join();
+                if (sharedCatalog != null) report.shared(json.remaining());
+                return new ParsedJson(entry.name(), entry.version(), sharedCatalog, key);
+            }
 
-        return soundNames;
+            try {
+                catalog.complete(getCatalog(entry.version(), json, key, dictionary, report, cache));
+            } catch (IOException | RuntimeException e) {
+                catalog.complete(null);
+                throw e;
+            }
+            return new ParsedJson(entry.name(), entry.version(), catalog.join(), key);
+        } catch (IOException e) {
+            return new ParsedJson(entry.name(), entry.version(), null, null);
+        }
     }
 
-}
\ No newline at end of file
+    /**
+     * Gets the catalog of a sounds json, reading it from its snapshot if the json was parsed before, or parsing it
+     * and writing its snapshot otherwise. Without a cache, the json is always parsed.
+     *
+     * @param version    The version of the json, used in the report.
+     * @param json       The UTF-8 contents of the json.
+     * @param key        The {@link CatalogCache#key(ByteBuffer)} of the json.
+     * @param dictionary The dictionary to add the sound names and ogg locations to.
+     * @param report     The report to count the json in.
+     * @param cache      The cache to read and write the snapshot of the json in, or null to parse it.
+     * @return The catalog of the json.
+     * @throws IOException If the json is malformed or is not in the format of a sounds.json.
+     */
+    public static @NotNull SoundCatalog getCatalog(@NotNull Version version, @NotNull ByteBuffer json, @NotNull String key,
+                                                   @NotNull StringDictionary dictionary, @NotNull RunReport report,
+                                                   @Nullable CatalogCache cache) throws IOException {
+        var event = new RunReport.ParseEvent();
+        event.begin();
+
+        // Parsing file as json, getting the sound names and ogg file locations. Jsons that were parsed before are
+        // read from their snapshot instead.
+        int bytes = json.remaining();
+        SoundCatalog catalog = cache == null ? null : cache.read(key, dictionary);
+        boolean parsed = catalog == null;
+
+        if (parsed) {
+            catalog = getSoundNamesAndOggArray(json, dictionary);
+            if (cache != null) cache.write(key, catalog);
+        }
+
+        report.read(bytes, parsed);
+        event.version = version.version();
+        event.bytes = bytes;
+        event.snapshot = !parsed;
+        event.commit();
+        return catalog;
+    }
+
+    /**
+     * Parses the sound names and ogg locations of a sounds json.
+     *
+     * @param json       The UTF-8 contents of the json.
+     * @param dictionary The dictionary to add the sound names and ogg locations to.
+     * @return The catalog of the json.
+     * @throws IOException If the json is malformed or is not in the format of a sounds.json.
+     */
+    public static @NotNull SoundCatalog getSoundNamesAndOggArray(@NotNull ByteBuffer json, @NotNull StringDictionary dictionary) throws IOException {
+        var catalog = new SoundCatalog.Builder(dictionary);
+
+        // Only sounds with "sounds" ogg locations array are real sounds, the reader skips the rest.
+        SoundsJsonReader.read(json, catalog);
+        return catalog.build();
+    }
+
+    private record StreamedJson(@NotNull String name, @NotNull Version version, @Nullable SoundCatalog catalog,
+                                @Nullable String key) {
+    }
+
+    private record ParsedJson(@NotNull String name, @NotNull Version version,
+                              @Nullable SoundCatalog catalog, @Nullable String key) {
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Sound Finder as a library, for JVM code that generates sounds in process instead of running the program, like build
+ * tooling. A session loads the catalogs of its sources once and keeps them with their match indexes, so every
+ * generation of the session reuses the same parsed and indexed versions.
+ * <p>
+ * Nothing is printed, written to files or read from the sounds folder of the program: the sources are given, results
+ * are returned in memory or written to a given writer, jsons that can't be parsed are listed by {@link #unparsable()}
+ * and invalid requests throw {@link IllegalArgumentException}. Sessions can be used from many threads.
+ */
+public final class SoundFinderSession {
+    private final @NotNull SortedMap<Version, SoundCatalog> versions;
+    private final @NotNull List<String> unparsable;
+    private final @NotNull MatchIndexes indexes = new MatchIndexes();
+
+    private SoundFinderSession(@NotNull TreeMap<Version, SoundCatalog> versions, @NotNull List<String> unparsable) {
+        this.versions = Collections.unmodifiableSortedMap(versions);
+        this.unparsable = List.copyOf(unparsable);
+    }
+
+    /**
+     * Loads the jsons of the sources, without reading or writing snapshots.
+     *
+     * @param sources The sources to load the jsons from, like {@link CatalogSource#bundled()} or a
+     *                {@link FolderCatalogSource}. The jsons of the last sources override the ones of the same version
+     *                before.
+     * @return The session of the loaded versions.
+     * @throws IOException If the jsons of a source could not be listed.
+     */
+    public static @NotNull SoundFinderSession load(@NotNull List<CatalogSource> sources) throws IOException {
+        return load(sources, new RunReport());
+    }
+
+    /**
+     * Loads the jsons of the sources, without reading or writing snapshots.
+     *
+     * @param sources The sources to load the jsons from.
+     * @param report  The report to time the list and parse phases in.
+     * @return The session of the loaded versions.
+     * @throws IOException If the jsons of a source could not be listed.
+     * @see #load(List)
+     */
+    public static @NotNull SoundFinderSession load(@NotNull List<CatalogSource> sources, @NotNull RunReport report) throws IOException {
+        var unparsable = new ArrayList<String>();
+        TreeMap<Version, SoundCatalog> versions = SoundFinderManager.getAvailableVersions(sources, report, null, unparsable::add, null);
+        return new SoundFinderSession(versions, unparsable);
+    }
+
+    /**
+     * Creates a session of catalogs that were already loaded.
+     *
+     * @param versions The catalogs of each version, sharing the same dictionary.
+     * @return The session of the versions.
+     * @throws IllegalArgumentException If the catalogs don't share the same dictionary.
+     */
+    public static @NotNull SoundFinderSession of(@NotNull SortedMap<Version, SoundCatalog> versions) {
+        SoundCatalog first = versions.isEmpty() ? null : versions.get(versions.firstKey());
+        for (SoundCatalog catalog : versions.values()) {
+            if (catalog.dictionary() != first.dictionary()) throw new IllegalArgumentException("The catalogs don't share the same dictionary.");
+        }
+        return new SoundFinderSession(new TreeMap<>(versions), List.of());
+    }
+
+    /**
+     * @return The catalogs of every loaded version, in version order.
+     */
+    public @NotNull SortedMap<Version, SoundCatalog> versions() {
+        return versions;
+    }
+
+    /**
+     * @return The names of the jsons that could not be parsed, and were left out of the versions.
+     */
+    public @NotNull List<String> unparsable() {
+        return unparsable;
+    }
+
+    /**
+     * Matches every sound of a base against every version.
+     *
+     * @see #table(Version, Set, SoundFilter, double, RunReport)
+     */
+    public @NotNull SoundTable table(@NotNull Version base) {
+        return table(base, Set.of(), SoundFilter.ALL, 0, new RunReport());
+    }
+
+    /**
+     * Matches the sounds of a base against the versions of this session. The versions are indexed once for every table
+     * of this session.
+     *
+     * @param base       The version whose sound names are used as enum names.
+     * @param excluded   The versions to leave out.
+     * @param sounds     The filter of the sounds of the base to match.
+     * @param similarity The minimum similarity of the ogg locations of sounds found by them, or 0 to only find sounds
+     *                   whose ogg locations are all in the base sound.
+     * @param report     The report to time the index and match phases in.
+     * @return The table of the base.
+     * @throws IllegalArgumentException If the base or an excluded version is not loaded, every version is excluded or
+     *                                  the similarity is not from 0 to 1.
+     */
+    public @NotNull SoundTable table(@NotNull Version base, @NotNull Set<Version> excluded, @NotNull SoundFilter sounds,
+                                     double similarity, @NotNull RunReport report) {
+        SoundCatalog catalog = versions.get(base);
+        if (catalog == null) throw new IllegalArgumentException("Unknown base version '" + base + "'. Available sound versions: " + versions.keySet());
+        for (Version version : excluded) {
+            if (!versions.containsKey(version)) throw new IllegalArgumentException("Unknown version '" + version + "' to exclude.");
+        }
+
+        var matched = new TreeMap<>(versions);
+        matched.keySet().removeAll(excluded);
+        if (matched.isEmpty()) throw new IllegalArgumentException("Every version was excluded.");
+
+        var table = new SoundTable(new Base(base, sounds.apply(catalog)), similarity, indexes);
+        table.putAll(matched, report, Runtime.getRuntime().availableProcessors());
+        return table;
+    }
+
+    /**
+     * Gets the matched names of a table in memory.
+     *
+     * @param table The matched sounds.
+     * @return The name of each sound in each version it was found, by enum name.
+     */
+    public static @NotNull TreeMap<String, TreeMap<Version, String>> sounds(@NotNull SoundTable table) {
+        var sounds = new TreeMap<String, TreeMap<Version, String>>();
+        try {
+            table.rows(sounds::put);
+        } catch (IOException e) {
+            // Putting in a map doesn't throw.
+            throw new UncheckedIOException(e);
+        }
+        return sounds;
+    }
+
+    /**
+     * Writes the sounds of a table in a format.
+     *
+     * @param table       The matched sounds.
+     * @param format      The format to write.
+     * @param denominator Whether sound names are prefixed by the versions they are in. If false, the table must have
+     *                    only one version.
+     * @param writer      The writer to write to. It's not closed.
+     * @return The amount of sounds written.
+     * @throws IOException If the writer fails.
+     */
+    public static int emit(@NotNull SoundTable table, @NotNull SoundEmitter.Format format, boolean denominator,
+                           @NotNull Writer writer) throws IOException {
+        if (!denominator && table.versions().size() != 1) {
+            throw new IllegalArgumentException("The version denominator can only be removed when one version is left, but there are " + table.versions() + ".");
+        }
+
+        SoundEmitter emitter = format.emitter(writer, denominator, table.base().catalog());
+        int sounds = SoundFinderManager.emit(table, List.of(emitter), new RunReport());
+        emitter.end();
+        return sounds;
+    }
+
+    /**
+     * Gets the sounds of a table in a format.
+     *
+     * @see #emit(SoundTable, SoundEmitter.Format, boolean, Writer)
+     */
+    public static @NotNull String emit(@NotNull SoundTable table, @NotNull SoundEmitter.Format format, boolean denominator) {
+        var writer = new StringWriter();
+        try {
+            emit(table, format, denominator, writer);
+        } catch (IOException e) {
+            // String writers don't throw.
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Diffs every version of this session against the version before it.
+     *
+     * @param excluded The versions to leave out.
+     * @param sounds   The filter of the sounds to list.
+     * @return The changes of every version but the first.
+     * @throws IllegalArgumentException If an excluded version is not loaded.
+     * @see Changelog#of(SortedMap, SoundFilter)
+     */
+    public @NotNull List<Changelog.Change> changelog(@NotNull Set<Version> excluded, @NotNull SoundFilter sounds) {
+        for (Version version : excluded) {
+            if (!versions.containsKey(version)) throw new IllegalArgumentException("Unknown version '" + version + "' to exclude.");
+        }
+
+        var diffed = new TreeMap<>(versions);
+        diffed.keySet().removeAll(excluded);
+        return Changelog.of(diffed, sounds);
+    }
+}
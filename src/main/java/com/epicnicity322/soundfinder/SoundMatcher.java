@@ -0,0 +1,250 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Finds the name a sound of the base version has in another version. Sounds are matched by exact name first, and if
+ * no sound with the same name exists, by the first sound (in name order) whose ogg locations are all contained in the
+ * ogg locations of the base sound.
+ * <p>
+ * Both lookups are backed by indexes over dictionary IDs, so matching a sound costs time proportional to its ogg
+ * locations instead of the size of the version. Instances keep scratch state between calls and are not thread safe,
+ * but {@link #share()} gives matchers for other threads without building the indexes again.
+ */
+public final class SoundMatcher {
+    private final @NotNull SoundCatalog catalog;
+    private final @NotNull BitSet names;
+    // Inverted index: the event indexes playing the ogg with ID i are in postings, from postingOffsets[i] to postingOffsets[i + 1].
+    private final int @NotNull [] postingOffsets;
+    private final int @NotNull [] postings;
+    private final int @NotNull [] distinctOggs;
+    private final int @NotNull [] hits;
+    private final int @NotNull [] touched;
+
+    public SoundMatcher(@NotNull SoundCatalog catalog) {
+        this.catalog = catalog;
+
+        int size = catalog.size();
+        int dictionarySize = catalog.dictionary().size();
+        names = new BitSet(dictionarySize);
+        postingOffsets = new int[dictionarySize + 1];
+        distinctOggs = new int[size];
+        hits = new int[size];
+        touched = new int[size];
+
+        // Counting the distinct oggs of each event, then placing the event in the posting list of each of them.
+        var eventOggs = new int[size][];
+        var scratch = new int[16];
+        for (int i = 0; i < size; ++i) {
+            names.set(catalog.event(i));
+            if (scratch.length < catalog.oggEnd(i) - catalog.oggStart(i)) scratch = new int[catalog.oggEnd(i) - catalog.oggStart(i)];
+            int count = distinctOggs(catalog, i, scratch);
+
+            distinctOggs[i] = count;
+            eventOggs[i] = Arrays.copyOf(scratch, count);
+            for (int j = 0; j < count; ++j) ++postingOffsets[scratch[j] + 1];
+        }
+        for (int i = 0; i < dictionarySize; ++i) postingOffsets[i + 1] += postingOffsets[i];
+
+        postings = new int[postingOffsets[dictionarySize]];
+        var fill = Arrays.copyOf(postingOffsets, dictionarySize);
+        for (int i = 0; i < size; ++i) {
+            for (int ogg : eventOggs[i]) postings[fill[ogg]++] = i;
+        }
+    }
+
+    private SoundMatcher(@NotNull SoundMatcher matcher) {
+        catalog = matcher.catalog;
+        names = matcher.names;
+        postingOffsets = matcher.postingOffsets;
+        postings = matcher.postings;
+        distinctOggs = matcher.distinctOggs;
+        hits = new int[matcher.hits.length];
+        touched = new int[matcher.touched.length];
+    }
+
+    /**
+     * Builds the table of names each sound of the base has in each version.
+     *
+     * @param base     The base, whose sound names are used as enum names.
+     * @param versions The versions to look for matching sounds, sharing the dictionary of the base.
+     * @return A map of enum names to a version sorted map of sound names.
+     */
+    public static @NotNull TreeMap<String, TreeMap<Version, String>> soundVersionName(@NotNull Base base, @NotNull TreeMap<Version, SoundCatalog> versions) {
+        var soundVersionName = new TreeMap<String, TreeMap<Version, String>>();
+        try {
+            soundVersionName(base, versions, soundVersionName::put);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return soundVersionName;
+    }
+
+    /**
+     * Matches each sound of the base against each version, passing the names of a sound to the consumer as soon as
+     * they are found. Sounds are given in enum name order, and sounds not found in any version are skipped.
+     *
+     * @see #soundVersionName(Base, TreeMap, RowConsumer, RunReport)
+     */
+    public static int soundVersionName(@NotNull Base base, @NotNull TreeMap<Version, SoundCatalog> versions,
+                                       @NotNull RowConsumer consumer) throws IOException {
+        return soundVersionName(base, versions, consumer, new RunReport());
+    }
+
+    /**
+     * Matches each sound of the base against each version, passing the names of a sound to the consumer as soon as
+     * they are found. Sounds are given in enum name order, and sounds not found in any version are skipped.
+     *
+     * @param base     The base, whose sound names are used as enum names.
+     * @param versions The versions to look for matching sounds, sharing the dictionary of the base.
+     * @param consumer The consumer of the names of each sound.
+     * @param report   The report to time the index, exact, fallback and emit phases in, and count matches.
+     * @return The amount of sounds given to the consumer.
+     * @throws IOException If the consumer fails.
+     * @see SoundTable
+     */
+    @SuppressWarnings("try")
+    public static int soundVersionName(@NotNull Base base, @NotNull TreeMap<Version, SoundCatalog> versions,
+                                       @NotNull RowConsumer consumer, @NotNull RunReport report) throws IOException {
+        var table = new SoundTable(base);
+        table.putAll(versions, report);
+
+        try (var ignored = report.phase("emit")) {
+            return table.rows(consumer);
+        }
+    }
+
+    /**
+     * @return A matcher with the indexes of this one and its own scratch state, to be used from another thread.
+     */
+    public @NotNull SoundMatcher share() {
+        return new SoundMatcher(this);
+    }
+
+    /**
+     * Writes the distinct ogg IDs of an event into an array, in ascending order.
+     *
+     * @return The amount of distinct ogg IDs written.
+     */
+    static int distinctOggs(@NotNull SoundCatalog catalog, int index, int @NotNull [] destination) {
+        int start = catalog.oggStart(index);
+        int length = catalog.oggEnd(index) - start;
+
+        for (int i = 0; i < length; ++i) destination[i] = catalog.ogg(start + i);
+        Arrays.sort(destination, 0, length);
+
+        int count = 0;
+        for (int i = 0; i < length; ++i) {
+            if (count == 0 || destination[count - 1] != destination[i]) destination[count++] = destination[i];
+        }
+        return count;
+    }
+
+    /**
+     * Looks for the name of a sound in this version.
+     *
+     * @param event    The dictionary ID of the sound name.
+     * @param oggs     The distinct dictionary IDs of the ogg locations of the sound.
+     * @param oggCount The amount of IDs in the oggs array to consider.
+     * @return The dictionary ID of the matching sound name, or -1 if there is no match.
+     */
+    public int match(int event, int @NotNull [] oggs, int oggCount) {
+        // Firstly, do a check of matching names.
+        int match = matchName(event);
+        return match != -1 ? match : matchOggs(oggs, oggCount);
+    }
+
+    /**
+     * Looks for a sound with the same name in this version.
+     *
+     * @param event The dictionary ID of the sound name.
+     * @return The dictionary ID of the sound name if this version has it, or -1 otherwise.
+     */
+    public int matchName(int event) {
+        return names.get(event) ? event : -1;
+    }
+
+    /**
+     * Looks for the first sound, in name order, whose ogg locations are all in the given ogg locations.
+     *
+     * @param oggs     The distinct dictionary IDs of the ogg locations of the sound.
+     * @param oggCount The amount of IDs in the oggs array to consider.
+     * @return The dictionary ID of the matching sound name, or -1 if there is no match.
+     */
+    public int matchOggs(int @NotNull [] oggs, int oggCount) {
+        // Only sounds sharing at least one ogg can qualify, and they do so when every one of their distinct oggs was hit.
+        int match = -1;
+        int touchedCount = 0;
+
+        for (int i = 0; i < oggCount; ++i) {
+            int ogg = oggs[i];
+            if (ogg >= postingOffsets.length - 1) continue;
+
+            for (int p = postingOffsets[ogg]; p < postingOffsets[ogg + 1]; ++p) {
+                int candidate = postings[p];
+
+                if (hits[candidate]++ == 0) touched[touchedCount++] = candidate;
+                if (hits[candidate] == distinctOggs[candidate]
+                        && (match == -1 || catalog.eventName(candidate).compareTo(catalog.eventName(match)) < 0)) {
+                    match = candidate;
+                }
+            }
+        }
+
+        for (int i = 0; i < touchedCount; ++i) hits[touched[i]] = 0;
+
+        return match == -1 ? -1 : catalog.event(match);
+    }
+
+    /**
+     * Looks for the sounds playing an ogg location. Unlike the other lookups, this only reads the indexes, so it can
+     * be called from many threads.
+     *
+     * @param ogg The dictionary ID of the ogg location.
+     * @return The dictionary IDs of the names of the sounds playing the ogg location, in catalog order.
+     */
+    public int @NotNull [] events(int ogg) {
+        if (ogg < 0 || ogg >= postingOffsets.length - 1) return new int[0];
+
+        var events = new int[postingOffsets[ogg + 1] - postingOffsets[ogg]];
+        for (int p = postingOffsets[ogg]; p < postingOffsets[ogg + 1]; ++p) events[p - postingOffsets[ogg]] = catalog.event(postings[p]);
+        return events;
+    }
+
+    /**
+     * Receives the names a sound of the base has in each version.
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+        /**
+         * @param enumName The name of the sound in the base, as an enum name.
+         * @param names    The name of the sound in each version it was found.
+         * @throws IOException If the names could not be used.
+         */
+        void row(@NotNull String enumName, @NotNull TreeMap<Version, String> names) throws IOException;
+    }
+}
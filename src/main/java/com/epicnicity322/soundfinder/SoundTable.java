@@ -0,0 +1,439 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * The names each sound of a base has in each version, kept as a column of dictionary IDs per version. Columns are
+ * computed when a version is put and can be replaced or removed one at a time, so changing a version does not require
+ * matching the other versions again.
+ * <p>
+ * Versions with the same catalog instance, like versions whose jsons are identical, share a single column, so the
+ * catalog is only matched once.
+ * <p>
+ * Sounds not found by name are looked up by their ogg locations. By default the first sound, in name order, whose ogg
+ * locations are all in the base sound is taken. With a similarity threshold, the sound whose ogg locations are the most
+ * similar to the base sound's is taken instead, through a {@link MinHashIndex}, so sounds whose oggs were partly moved
+ * or renamed are still found.
+ */
+public final class SoundTable {
+    /**
+     * The amount of base sounds matched by each task when matching in parallel.
+     */
+    private static final int CHUNK = 256;
+    private final @NotNull Base base;
+    private final double similarity;
+    private final @Nullable MatchIndexes indexes;
+    private final int @NotNull [] @NotNull [] baseOggs;
+    private final @NotNull String @NotNull [] enumNames;
+    private final int @NotNull [] order;
+    // The dictionary ID of the name each base sound has in the version, or -1 if it's not in the version.
+    private final @NotNull TreeMap<Version, int[]> columns = new TreeMap<>();
+    private final @NotNull IdentityHashMap<SoundCatalog, Column> shared = new IdentityHashMap<>();
+    private final @NotNull IdentityHashMap<int[], SoundCatalog> catalogs = new IdentityHashMap<>();
+
+    public SoundTable(@NotNull Base base) {
+        this(base, 0);
+    }
+
+    /**
+     * @param base       The base to match the sounds of.
+     * @param similarity The minimum Jaccard similarity of the ogg locations of a sound found by them, from 0 exclusive
+     *                   to 1, or 0 to only find sounds whose ogg locations are all in the base sound.
+     */
+    public SoundTable(@NotNull Base base, double similarity) {
+        this(base, similarity, null);
+    }
+
+    /**
+     * @param base       The base to match the sounds of.
+     * @param similarity The minimum Jaccard similarity of the ogg locations of a sound found by them, from 0 exclusive
+     *                   to 1, or 0 to only find sounds whose ogg locations are all in the base sound.
+     * @param indexes    The indexes shared with other tables, or null to index each version as it's put.
+     */
+    public SoundTable(@NotNull Base base, double similarity, @Nullable MatchIndexes indexes) {
+        if (!(similarity >= 0 && similarity <= 1)) throw new IllegalArgumentException("Similarity must be between 0 and 1: " + similarity);
+
+        this.base = base;
+        this.similarity = similarity;
+        this.indexes = indexes;
+
+        SoundCatalog baseCatalog = base.catalog();
+        int size = baseCatalog.size();
+        baseOggs = new int[size][];
+        enumNames = new String[size];
+
+        var scratch = new int[16];
+        var sorted = new Integer[size];
+        for (int i = 0; i < size; ++i) {
+            if (scratch.length < baseCatalog.oggEnd(i) - baseCatalog.oggStart(i)) scratch = new int[baseCatalog.oggEnd(i) - baseCatalog.oggStart(i)];
+            baseOggs[i] = Arrays.copyOf(scratch, SoundMatcher.distinctOggs(baseCatalog, i, scratch));
+            enumNames[i] = enumName(baseCatalog.eventName(i));
+            sorted[i] = i;
+        }
+
+        // Base sounds in enum name order. Sounds with the same enum name are next to each other, in catalog order.
+        Arrays.sort(sorted, Comparator.comparing((Integer i) -> enumNames[i]).thenComparing(i -> i));
+        order = new int[size];
+        for (int i = 0; i < size; ++i) order[i] = sorted[i];
+    }
+
+    /**
+     * @param sound The name of a sound.
+     * @return The name of the sound as an enum name.
+     */
+    static @NotNull String enumName(@NotNull String sound) {
+        return sound.toUpperCase().replace('.', '_');
+    }
+
+    public @NotNull Base base() {
+        return base;
+    }
+
+    /**
+     * @return The versions in this table, in order.
+     */
+    public @NotNull Set<Version> versions() {
+        return Collections.unmodifiableSet(columns.keySet());
+    }
+
+    /**
+     * Matches every sound of the base against a version, replacing the column of the version if it was already in
+     * the table. Every sound is looked up by name first, then the ones not found are looked up by ogg locations. If
+     * another version of the table has the same catalog, its column is reused instead.
+     *
+     * @param version The version.
+     * @param catalog The catalog of the version, sharing the dictionary of the base.
+     * @param report  The report to time the index, exact and fallback phases in, and count matches.
+     */
+    public void put(@NotNull Version version, @NotNull SoundCatalog catalog, @NotNull RunReport report) {
+        put(version, catalog, report, (ForkJoinPool) null);
+    }
+
+    /**
+     * Matches every sound of the base against a version, splitting the sounds of the base between the threads of a
+     * fork join pool created for this call. Callers putting many versions should reuse a pool with
+     * {@link #put(Version, SoundCatalog, RunReport, ForkJoinPool)} instead.
+     *
+     * @param parallelism The amount of threads matching, or 1 to match in this thread.
+     * @see #put(Version, SoundCatalog, RunReport)
+     */
+    public void put(@NotNull Version version, @NotNull SoundCatalog catalog, @NotNull RunReport report, int parallelism) {
+        if (parallelism <= 1) {
+            put(version, catalog, report, (ForkJoinPool) null);
+            return;
+        }
+
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            put(version, catalog, report, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Matches every sound of the base against a version, splitting the sounds of the base between the threads of a
+     * fork join pool.
+     *
+     * @param pool The pool to match in, which may be shared with other tables, or null to match in this thread.
+     * @see #put(Version, SoundCatalog, RunReport)
+     */
+    public void put(@NotNull Version version, @NotNull SoundCatalog catalog, @NotNull RunReport report, @Nullable ForkJoinPool pool) {
+        checkDictionary(version, catalog);
+
+        Column column = shared.get(catalog);
+        if (column == null) {
+            column = pool != null ? inPool(pool, () -> match(catalog, report, true)) : match(catalog, report, false);
+            share(catalog, column);
+        }
+        insert(version, column, report);
+    }
+
+    /**
+     * Matches every sound of the base against many versions, replacing the columns of the versions already in the
+     * table. Versions with distinct catalogs are matched at the same time, and the sounds of the base are split
+     * between the threads too, so even a single version is matched in parallel. Sounds are matched the same way in
+     * any thread, and columns are added in version order, so the table is the same as putting the versions one by one.
+     *
+     * @param versions    The versions and their catalogs, sharing the dictionary of the base.
+     * @param report      The report to time the index, exact and fallback phases in, and count matches. Phases are
+     *                    the sum of the time of every thread.
+     * @param parallelism The amount of threads matching, or 1 to match in this thread.
+     */
+    public void putAll(@NotNull SortedMap<Version, SoundCatalog> versions, @NotNull RunReport report, int parallelism) {
+        if (parallelism <= 1) {
+            putAll(versions, report, (ForkJoinPool) null);
+            return;
+        }
+
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            putAll(versions, report, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Matches every sound of the base against many versions in a fork join pool.
+     *
+     * @param pool The pool to match in, which may be shared with other tables, or null to match in this thread.
+     * @see #putAll(SortedMap, RunReport, int)
+     */
+    public void putAll(@NotNull SortedMap<Version, SoundCatalog> versions, @NotNull RunReport report, @Nullable ForkJoinPool pool) {
+        for (Map.Entry<Version, SoundCatalog> version : versions.entrySet()) checkDictionary(version.getKey(), version.getValue());
+
+        if (pool != null) {
+            var pending = new ArrayList<SoundCatalog>();
+            var seen = Collections.newSetFromMap(new IdentityHashMap<SoundCatalog, Boolean>());
+            for (SoundCatalog catalog : versions.values()) {
+                if (!shared.containsKey(catalog) && seen.add(catalog)) pending.add(catalog);
+            }
+
+            List<Column> matched = inPool(pool, () -> pending.parallelStream().map(catalog -> match(catalog, report, true)).toList());
+            for (int i = 0; i < pending.size(); ++i) share(pending.get(i), matched.get(i));
+        }
+
+        for (Map.Entry<Version, SoundCatalog> version : versions.entrySet()) {
+            put(version.getKey(), version.getValue(), report);
+        }
+    }
+
+    /**
+     * Matches every sound of the base against many versions, using a thread for each available processor.
+     *
+     * @see #putAll(SortedMap, RunReport, int)
+     */
+    public void putAll(@NotNull SortedMap<Version, SoundCatalog> versions, @NotNull RunReport report) {
+        putAll(versions, report, Runtime.getRuntime().availableProcessors());
+    }
+
+    private void checkDictionary(@NotNull Version version, @NotNull SoundCatalog catalog) {
+        if (catalog.dictionary() != base.catalog().dictionary()) {
+            throw new IllegalArgumentException("Catalog of version " + version + " does not share the dictionary of the base");
+        }
+    }
+
+    private static <T> T inPool(@NotNull ForkJoinPool pool, @NotNull Supplier<T> task) {
+        // Parallel streams started by a task of a pool run in that pool.
+        return pool.submit(task::get).join();
+    }
+
+    /**
+     * Matches every sound of the base against a catalog, in chunks of {@link #CHUNK} sounds. Chunks are the same no
+     * matter the parallelism, so the counts and similarities are summed in the same order.
+     */
+    @SuppressWarnings("try")
+    private @NotNull Column match(@NotNull SoundCatalog catalog, @NotNull RunReport report, boolean parallel) {
+        final SoundMatcher matcher;
+        if (indexes != null) {
+            matcher = indexes.matcher(catalog, report);
+        } else {
+            try (var ignored = report.phase("index")) {
+                matcher = new SoundMatcher(catalog);
+            }
+        }
+
+        MinHashIndex minHash = null;
+        if (similarity != 0) {
+            if (indexes != null) {
+                minHash = indexes.minHash(catalog, report);
+            } else {
+                try (var ignored = report.phase("minhash")) {
+                    minHash = new MinHashIndex(catalog);
+                }
+            }
+        }
+
+        int size = base.catalog().size();
+        var matches = new int[size];
+        var chunks = new Chunk[(size + CHUNK - 1) / CHUNK];
+        IntStream chunkIndexes = IntStream.range(0, chunks.length);
+        MinHashIndex index = minHash;
+
+        (parallel ? chunkIndexes.parallel() : chunkIndexes).forEach(c -> chunks[c] = match(matches, c * CHUNK, Math.min(size, (c + 1) * CHUNK),
+                parallel ? matcher.share() : matcher, index == null ? null : parallel ? index.share() : index, report));
+
+        int exact = 0;
+        int ogg = 0;
+        double minSimilarity = Double.NaN;
+        double sum = 0;
+        for (Chunk chunk : chunks) {
+            exact += chunk.exact();
+            ogg += chunk.ogg();
+            sum += chunk.similaritySum();
+            if (!Double.isNaN(chunk.minSimilarity()) && !(chunk.minSimilarity() >= minSimilarity)) minSimilarity = chunk.minSimilarity();
+        }
+
+        return new Column(matches, exact, ogg, minSimilarity, index == null || ogg == 0 ? Double.NaN : sum / ogg);
+    }
+
+    /**
+     * Matches the sounds of the base from an index to another.
+     */
+    private @NotNull Chunk match(int @NotNull [] matches, int from, int to, @NotNull SoundMatcher matcher,
+                                 @Nullable MinHashIndex minHash, @NotNull RunReport report) {
+        SoundCatalog baseCatalog = base.catalog();
+        int exact = 0;
+        int ogg = 0;
+        double minSimilarity = Double.NaN;
+        double sum = 0;
+
+        long start = System.nanoTime();
+        for (int i = from; i < to; ++i) {
+            if ((matches[i] = matcher.matchName(baseCatalog.event(i))) != -1) ++exact;
+        }
+        long exactEnd = System.nanoTime();
+
+        for (int i = from; i < to; ++i) {
+            if (matches[i] != -1) continue;
+
+            if (minHash == null) {
+                if ((matches[i] = matcher.matchOggs(baseOggs[i], baseOggs[i].length)) != -1) ++ogg;
+            } else {
+                MinHashIndex.Match match = minHash.match(baseOggs[i], baseOggs[i].length, similarity);
+                if (match == null) continue;
+
+                matches[i] = match.event();
+                sum += match.similarity();
+                if (ogg++ == 0 || match.similarity() < minSimilarity) minSimilarity = match.similarity();
+            }
+        }
+
+        report.time("exact", exactEnd - start);
+        report.time("fallback", System.nanoTime() - exactEnd);
+        return new Chunk(exact, ogg, minSimilarity, sum);
+    }
+
+    private void share(@NotNull SoundCatalog catalog, @NotNull Column column) {
+        shared.put(catalog, column);
+        catalogs.put(column.matches(), catalog);
+    }
+
+    private void insert(@NotNull Version version, @NotNull Column column, @NotNull RunReport report) {
+        report.matched(version, column.exact(), column.ogg(), base.catalog().size() - column.exact() - column.ogg(), column.minSimilarity(), column.meanSimilarity());
+        remove(version);
+        columns.put(version, column.matches());
+    }
+
+    /**
+     * @param version The version to remove.
+     * @return Whether the version was in the table.
+     */
+    public boolean remove(@NotNull Version version) {
+        int[] matches = columns.remove(version);
+        if (matches == null) return false;
+
+        // Forgetting the catalog once no other version shares its column.
+        if (!columns.containsValue(matches)) shared.remove(catalogs.remove(matches));
+        return true;
+    }
+
+    /**
+     * Forgets a catalog put in this table, so it can be collected. The versions put with it keep their columns, but
+     * versions put with it later are matched again.
+     *
+     * @param catalog The catalog.
+     */
+    public void release(@NotNull SoundCatalog catalog) {
+        Column column = shared.remove(catalog);
+        if (column != null) catalogs.remove(column.matches());
+    }
+
+    /**
+     * Gets the name a sound of the base has in a version. Tables can be read from many threads once no more versions
+     * are put or removed.
+     *
+     * @param version The version.
+     * @param index   The index of the sound in the catalog of the base.
+     * @return The dictionary ID of the name of the sound in the version, or -1 if it's not in the version or the
+     * version is not in this table.
+     */
+    public int match(@NotNull Version version, int index) {
+        int[] matches = columns.get(version);
+        return matches == null ? -1 : matches[index];
+    }
+
+    /**
+     * Gets the column of a version, which is the same array for versions sharing a catalog.
+     *
+     * @param version The version.
+     * @return The dictionary IDs of the names of each base sound in the version, or null if the version is not in this
+     * table.
+     */
+    int @Nullable [] column(@NotNull Version version) {
+        return columns.get(version);
+    }
+
+    /**
+     * Passes the names of each base sound to the consumer, in enum name order. Sounds with the same enum name are
+     * merged, in catalog order, so the names of the last one override the others. Sounds not found in any version are
+     * skipped.
+     *
+     * @param consumer The consumer of the names of each sound.
+     * @return The amount of sounds given to the consumer.
+     * @throws IOException If the consumer fails.
+     */
+    public int rows(@NotNull SoundMatcher.RowConsumer consumer) throws IOException {
+        var versions = columns.keySet().toArray(new Version[0]);
+        var matches = columns.values().toArray(new int[0][]);
+        SoundCatalog baseCatalog = base.catalog();
+        int size = order.length;
+        int rows = 0;
+        TreeMap<Version, String> row = null;
+
+        for (int o = 0; o < size; ++o) {
+            int i = order[o];
+            String enumName = enumNames[i];
+
+            for (int v = 0; v < versions.length; ++v) {
+                int match = matches[v][i];
+
+                if (match != -1) {
+                    if (row == null) row = new TreeMap<>();
+                    row.put(versions[v], baseCatalog.dictionary().string(match));
+                }
+            }
+
+            if (row != null && (o + 1 == size || !enumNames[order[o + 1]].equals(enumName))) {
+                consumer.row(enumName, row);
+                row = null;
+                ++rows;
+            }
+        }
+
+        return rows;
+    }
+
+    private record Chunk(int exact, int ogg, double minSimilarity, double similaritySum) {
+    }
+
+    private record Column(int @NotNull [] matches, int exact, int ogg, double minSimilarity, double meanSimilarity) {
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps printing the outputs of a job whenever sounds jsons are added, changed or removed in the sounds folder. Only
+ * the jsons that changed are parsed again, and only their versions are matched against the base again, unless the
+ * base itself changed.
+ */
+final class Watch {
+    /**
+     * How long the folder must go without changes before regenerating, since copying a json fires several events.
+     */
+    private static final long QUIET_MILLIS = 250;
+    private final @NotNull Batch.Job job;
+    private final @NotNull Version baseVersion;
+    private final @NotNull TreeMap<Version, SoundCatalog> catalogs;
+    private final @NotNull StringDictionary dictionary;
+    private final @NotNull List<CatalogSource> sources;
+    private final @NotNull Path folder;
+    private final @Nullable CatalogCache cache;
+    private final @Nullable ForkJoinPool pool;
+    // The cache keys of the jsons loaded, to skip events that didn't change the contents of a json.
+    private final @NotNull HashMap<Version, String> keys;
+    private @Nullable SoundTable table;
+
+    /**
+     * @param job               The job to print the outputs of.
+     * @param baseVersion       The version of the base.
+     * @param availableVersions The catalogs loaded for the job, which must have the base.
+     * @param keys              The cache keys of the jsons the catalogs were loaded from.
+     * @param sources           The sources the catalogs were loaded from, the last one overriding the others.
+     * @param folder            The folder to watch, which should be the folder of one of the sources.
+     * @param cache             The cache to read and write the snapshots of changed jsons in, or null to parse them.
+     * @param pool              The pool to match in, kept for every change, or null to match in the watching thread.
+     */
+    Watch(@NotNull Batch.Job job, @NotNull Version baseVersion, @NotNull TreeMap<Version, SoundCatalog> availableVersions,
+          @NotNull Map<Version, String> keys, @NotNull List<CatalogSource> sources, @NotNull Path folder,
+          @Nullable CatalogCache cache, @Nullable ForkJoinPool pool) {
+        this.job = job;
+        this.baseVersion = baseVersion;
+        this.catalogs = new TreeMap<>(availableVersions);
+        this.dictionary = catalogs.get(baseVersion).dictionary();
+        this.keys = new HashMap<>(keys);
+        this.sources = sources;
+        this.folder = folder;
+        this.cache = cache;
+        this.pool = pool;
+    }
+
+    /**
+     * Prints the outputs, then waits for changes in the sounds folder until the thread is interrupted.
+     *
+     * @param report The report of the load, to be completed with the first generation.
+     * @return The exit status, if watching stops.
+     */
+    int run(@NotNull RunReport report) {
+        if (!start(report)) return Batch.INVALID_USAGE;
+
+        try (WatchService watcher = folder.getFileSystem().newWatchService()) {
+            folder.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            System.out.println("\nWatching '" + folder.getFileName() + "' folder for changes. Press Ctrl+C to stop.");
+
+            while (true) {
+                WatchKey key = watcher.take();
+                var changed = new TreeSet<Version>();
+                boolean overflow = false;
+
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflow = true;
+                        } else {
+                            Version version = FolderCatalogSource.version(event.context().toString());
+                            if (version != null) changed.add(version);
+                        }
+                    }
+                    if (!key.reset()) {
+                        System.err.println("The '" + folder.getFileName() + "' folder can't be watched anymore.");
+                        return Batch.JOB_FAILED;
+                    }
+                    key = watcher.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                }
+
+                // Events were lost, so every version could have changed.
+                if (overflow) {
+                    changed.addAll(catalogs.keySet());
+                    changed.addAll(entries().keySet());
+                }
+                if (!changed.isEmpty()) update(changed, new RunReport());
+            }
+        } catch (IOException e) {
+            System.err.println("Unable to watch '" + folder.getFileName() + "' folder:");
+            e.printStackTrace();
+            return Batch.JOB_FAILED;
+        } catch (InterruptedException e) {
+            return Batch.SUCCESS;
+        }
+    }
+
+    /**
+     * Matches the versions against the base and prints the outputs for the first time.
+     *
+     * @param report The report of the load, to be completed with the first generation.
+     * @return Whether the base is available.
+     */
+    boolean start(@NotNull RunReport report) {
+        table = table(report);
+        if (table == null) return false;
+        print(table, report);
+        return true;
+    }
+
+    /**
+     * Parses the jsons of the changed versions again, matches them against the base and prints the outputs. Versions
+     * whose jsons have the same contents as before are skipped.
+     *
+     * @param changed The versions whose jsons may have been added, changed or removed.
+     * @param report  The report to count the jsons parsed and the versions matched in.
+     */
+    void update(@NotNull Set<Version> changed, @NotNull RunReport report) {
+        long start = System.nanoTime();
+        Map<Version, CatalogSource.Entry> entries = entries();
+        var updated = new ArrayList<Version>();
+        boolean rebuild = table == null;
+
+        for (Version version : changed) {
+            CatalogSource.Entry entry = entries.get(version);
+
+            if (entry == null) {
+                keys.remove(version);
+                if (catalogs.remove(version) == null) continue;
+                if (version.equals(baseVersion)) {
+                    rebuild = true;
+                } else if (table != null) {
+                    table.remove(version);
+                }
+                updated.add(version);
+                continue;
+            }
+
+            final SoundCatalog catalog;
+            try {
+                ByteBuffer json = entry.read();
+                String key = CatalogCache.key(json);
+
+                if (key.equals(keys.get(version))) continue;
+                catalog = sharedCatalog(key, json, version, report);
+                keys.put(version, key);
+            } catch (IOException e) {
+                // The json may still be being written, it will be read again on its next event.
+                System.err.println("Unable to parse '" + entry.name() + "' as a json.");
+                continue;
+            }
+
+            catalogs.put(version, catalog);
+            if (version.equals(baseVersion)) {
+                rebuild = true;
+            } else if (table != null && !job.excluded().contains(version)) {
+                table.put(version, catalog, report, pool);
+            }
+            updated.add(version);
+        }
+
+        if (updated.isEmpty()) return;
+        System.out.println("\nVersions changed: " + updated);
+
+        if (rebuild) table = table(report);
+        if (table == null) return;
+
+        print(table, report);
+        System.out.println("Regenerated in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms.");
+    }
+
+    /**
+     * Gets the catalog of a json, sharing the catalog of another version if their jsons are identical, so the table
+     * also shares their columns.
+     */
+    private @NotNull SoundCatalog sharedCatalog(@NotNull String key, @NotNull ByteBuffer json, @NotNull Version version,
+                                                @NotNull RunReport report) throws IOException {
+        for (Map.Entry<Version, String> other : keys.entrySet()) {
+            SoundCatalog catalog = catalogs.get(other.getKey());
+
+            if (other.getValue().equals(key) && catalog != null) {
+                report.shared(json.remaining());
+                return catalog;
+            }
+        }
+        return SoundFinderManager.getCatalog(version, json, key, dictionary, report, cache);
+    }
+
+    /**
+     * Matches every version that is not excluded against the base.
+     *
+     * @return The table, or null if the base is not available.
+     */
+    private @Nullable SoundTable table(@NotNull RunReport report) {
+        SoundCatalog baseCatalog = catalogs.get(baseVersion);
+
+        if (baseCatalog == null) {
+            System.err.println("The base version " + baseVersion + " is not available. Waiting for its json to be added back.");
+            return null;
+        }
+
+        var versions = new TreeMap<>(catalogs);
+        versions.keySet().removeAll(job.excluded());
+
+        var table = new SoundTable(new Base(baseVersion, job.sounds().apply(baseCatalog)), job.similarity());
+        table.putAll(versions, report, pool);
+        return table;
+    }
+
+    private void print(@NotNull SoundTable table, @NotNull RunReport report) {
+        if (job.noDenominator() && table.versions().size() != 1) {
+            System.err.println("The version denominator can only be removed when one version is left, but there are " + table.versions() + ".");
+            return;
+        }
+        Batch.print(job, table, report);
+    }
+
+    /**
+     * @return The jsons available now, with the jsons of the last sources overriding the ones before.
+     */
+    private @NotNull Map<Version, CatalogSource.Entry> entries() {
+        var entries = new HashMap<Version, CatalogSource.Entry>();
+
+        for (CatalogSource source : sources) {
+            try {
+                for (CatalogSource.Entry entry : source.entries()) entries.put(entry.version(), entry);
+            } catch (IOException e) {
+                if (source instanceof FolderCatalogSource folderSource) {
+                    System.err.println("Unable to list '" + folderSource.folder().getFileName() + "' folder: " + e.getMessage());
+                } else {
+                    System.err.println(e.getMessage());
+                }
+            }
+        }
+        return entries;
+    }
+}
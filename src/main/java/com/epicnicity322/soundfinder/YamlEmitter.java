@@ -0,0 +1,64 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Writes sounds as a yaml mapping of enum names to the sound name of each range of versions. Without denominator, the
+ * enum names are mapped straight to the sound name.
+ */
+public final class YamlEmitter implements SoundEmitter {
+    private final @NotNull Writer writer;
+    private final boolean denominator;
+
+    public YamlEmitter(@NotNull Writer writer, boolean denominator) {
+        this.writer = writer;
+        this.denominator = denominator;
+    }
+
+    @Override
+    public void sound(@NotNull String enumName, @NotNull SortedMap<Version, String> names,
+                      @NotNull List<Range> ranges) throws IOException {
+        writer.write(enumName);
+        writer.write(':');
+
+        if (!denominator) {
+            writer.write(' ');
+            JsonEmitter.quote(writer, names.get(names.firstKey()));
+            writer.write('\n');
+            return;
+        }
+
+        writer.write('\n');
+        for (Range range : ranges) {
+            writer.write("  ");
+            JsonEmitter.quote(writer, range.versions());
+            writer.write(": ");
+            JsonEmitter.quote(writer, range.name());
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A file written through a temporary file in the same folder, which only replaces the file once {@link #commit()} is
+ * called. If the output is closed without committing, the temporary file is deleted and the file is left untouched.
+ * <p>
+ * The temporary file is created with the default permissions of new files, and takes the permissions of the file it
+ * replaces on commit.
+ */
+public final class OutputFile implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private final @NotNull Path path;
+    private final @NotNull Path temp;
+    private final @NotNull FileChannel channel;
+    private final @NotNull BufferedWriter writer;
+    private boolean done = false;
+
+    private OutputFile(@NotNull Path path, @NotNull Path temp, @NotNull FileChannel channel) {
+        this.path = path;
+        this.temp = temp;
+        this.channel = channel;
+        this.writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Creates the temporary file of an output, creating the folders of the output if needed.
+     *
+     * @param path The file to write.
+     * @return The output, which must be closed.
+     * @throws IOException If the temporary file could not be created.
+     */
+    public static @NotNull OutputFile open(@NotNull Path path) throws IOException {
+        Path folder = path.toAbsolutePath().getParent();
+        Files.createDirectories(folder);
+
+        // Files.createTempFile would make the file readable only by the owner.
+        while (true) {
+            Path temp = folder.resolve(path.getFileName() + "." + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                return new OutputFile(path, temp, FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+            } catch (FileAlreadyExistsException ignored) {
+            }
+        }
+    }
+
+    public @NotNull Path path() {
+        return path;
+    }
+
+    /**
+     * @return The UTF-8 writer of the temporary file.
+     */
+    public @NotNull Writer writer() {
+        return writer;
+    }
+
+    /**
+     * Flushes everything written and moves the temporary file to the output, replacing any previous file.
+     *
+     * @throws IOException If the file could not be written or moved.
+     */
+    public void commit() throws IOException {
+        if (done) throw new IllegalStateException("Output was already closed");
+        done = true;
+
+        try (channel) {
+            writer.flush();
+            channel.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        try {
+            PosixFileAttributeView previous = Files.getFileAttributeView(path, PosixFileAttributeView.class);
+            if (previous != null && Files.exists(path)) {
+                Files.getFileAttributeView(temp, PosixFileAttributeView.class).setPermissions(previous.readAttributes().permissions());
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Discards the output if it was not committed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (done) return;
+        done = true;
+
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
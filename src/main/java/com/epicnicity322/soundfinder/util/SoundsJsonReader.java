@@ -0,0 +1,431 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A streaming reader for minecraft's sounds.json, working straight on UTF-8 bytes. Only the event names, the ogg
+ * locations in their "sounds" arrays and the volume, pitch, weight and stream of each ogg are decoded, everything else
+ * is skipped without creating any objects.
+ */
+public final class SoundsJsonReader {
+    /**
+     * Files smaller than this are read into the heap, since mapping them costs more than copying.
+     */
+    private static final long MAP_THRESHOLD = 1 << 20;
+    private static final byte @NotNull [] @NotNull [] EVENT_KEYS = keys("sounds");
+    private static final byte @NotNull [] @NotNull [] SOUND_KEYS = keys("name", "volume", "pitch", "weight", "stream");
+
+    private final @NotNull ByteBuffer buffer;
+    private final int limit;
+    private int position;
+    private byte @NotNull [] scratch = new byte[128];
+
+    private SoundsJsonReader(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    private static byte @NotNull [] @NotNull [] keys(@NotNull String @NotNull ... keys) {
+        var bytes = new byte[keys.length][];
+        for (int i = 0; i < keys.length; ++i) bytes[i] = keys[i].getBytes(StandardCharsets.UTF_8);
+        return bytes;
+    }
+
+    /**
+     * Gets the contents of a file as a buffer, mapping it into memory if it's large and in the default file system.
+     *
+     * @param path The file to read.
+     * @return The buffer with the contents of the file.
+     * @throws IOException If the file could not be read.
+     */
+    public static @NotNull ByteBuffer buffer(@NotNull Path path) throws IOException {
+        // Files in other file systems, like the jar, can't be mapped.
+        if (path.getFileSystem() == FileSystems.getDefault()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+
+                if (size >= MAP_THRESHOLD) return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(path));
+    }
+
+    /**
+     * Reads a sounds.json, notifying the handler of every event that has a "sounds" array, followed by every ogg
+     * location in that array and its attributes.
+     *
+     * @param buffer  The UTF-8 bytes of the json.
+     * @param handler The handler to notify.
+     * @throws IOException If the json is malformed or is not in the format of a sounds.json.
+     */
+    public static void read(@NotNull ByteBuffer buffer, @NotNull Handler handler) throws IOException {
+        var reader = new SoundsJsonReader(buffer);
+
+        // Skipping byte order mark.
+        if (reader.limit - reader.position >= 3 && buffer.get(reader.position) == (byte) 0xEF
+                && buffer.get(reader.position + 1) == (byte) 0xBB && buffer.get(reader.position + 2) == (byte) 0xBF) {
+            reader.position += 3;
+        }
+
+        reader.expect('{');
+        if (!reader.consume('}')) {
+            do {
+                String event = reader.readString();
+                reader.expect(':');
+                reader.readEvent(event, handler);
+            } while (reader.consume(','));
+            reader.expect('}');
+        }
+
+        if (reader.skipWhitespace() != -1) throw reader.unexpected();
+    }
+
+    private void readEvent(@NotNull String event, @NotNull Handler handler) throws IOException {
+        expect('{');
+        if (consume('}')) return;
+
+        do {
+            boolean sounds = readKey(EVENT_KEYS) == 0;
+            expect(':');
+
+            if (sounds && skipWhitespace() == '[') {
+                readSounds(event, handler);
+            } else {
+                skipValue();
+            }
+        } while (consume(','));
+        expect('}');
+    }
+
+    private void readSounds(@NotNull String event, @NotNull Handler handler) throws IOException {
+        expect('[');
+        handler.event(event);
+        if (consume(']')) return;
+
+        do {
+            int next = skipWhitespace();
+
+            if (next == '"') {
+                handler.sound(readString(), 1, 1, 1, false);
+            } else if (next == '{') {
+                // Some sounds have specific pitch and volume, so looking for ogg under "name" key.
+                String name = null;
+                float volume = 1;
+                float pitch = 1;
+                int weight = 1;
+                boolean stream = false;
+
+                expect('{');
+                if (!consume('}')) {
+                    do {
+                        int key = readKey(SOUND_KEYS);
+                        expect(':');
+                        int value = skipWhitespace();
+                        boolean number = value == '-' || (value >= '0' && value <= '9');
+
+                        if (key == 0 && value == '"') {
+                            name = readString();
+                        } else if (key == 1 && number) {
+                            volume = (float) readNumber();
+                        } else if (key == 2 && number) {
+                            pitch = (float) readNumber();
+                        } else if (key == 3 && number) {
+                            weight = (int) readNumber();
+                        } else if (key == 4 && (value == 't' || value == 'f')) {
+                            stream = readBoolean();
+                        } else {
+                            skipValue();
+                        }
+                    } while (consume(','));
+                    expect('}');
+                }
+
+                if (name != null) handler.sound(name, volume, pitch, weight, stream);
+            } else {
+                skipValue();
+            }
+        } while (consume(','));
+        expect(']');
+    }
+
+    /**
+     * Reads an object key, comparing it to the expected keys without decoding it.
+     *
+     * @return The index of the key in the expected keys, or -1 if it's not one of them.
+     */
+    private int readKey(byte @NotNull [] @NotNull [] expected) throws IOException {
+        expect('"');
+        int start = position;
+        boolean escaped = false;
+
+        while (true) {
+            if (position >= limit) throw unexpected();
+            byte b = buffer.get(position++);
+
+            if (b == '"') break;
+            if (b == '\\') {
+                escaped = true;
+                if (position++ >= limit) throw unexpected();
+            }
+        }
+
+        if (escaped) {
+            // Escaped keys are not expected, but must still be compared by their value.
+            position = start - 1;
+            String key = readString();
+            for (int k = 0; k < expected.length; ++k) {
+                if (key.equals(new String(expected[k], StandardCharsets.UTF_8))) return k;
+            }
+            return -1;
+        }
+
+        int length = position - 1 - start;
+        keys:
+        for (int k = 0; k < expected.length; ++k) {
+            if (length != expected[k].length) continue;
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(start + i) != expected[k][i]) continue keys;
+            }
+            return k;
+        }
+        return -1;
+    }
+
+    private double readNumber() throws IOException {
+        int start = position;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if ((b < '0' || b > '9') && b != '-' && b != '+' && b != '.' && b != 'e' && b != 'E') break;
+            position++;
+        }
+
+        try {
+            return Double.parseDouble(decode(start, position));
+        } catch (NumberFormatException e) {
+            position = start;
+            throw unexpected();
+        }
+    }
+
+    private boolean readBoolean() throws IOException {
+        boolean value = buffer.get(position) == 't';
+        int length = value ? 4 : 5;
+        String literal = value ? "true" : "false";
+
+        if (position + length > limit) throw unexpected();
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(position) != literal.charAt(i)) throw unexpected();
+            position++;
+        }
+        return value;
+    }
+
+    private @NotNull String readString() throws IOException {
+        expect('"');
+        int start = position;
+
+        while (position < limit) {
+            byte b = buffer.get(position);
+
+            if (b == '"') {
+                String string = decode(start, position);
+                position++;
+                return string;
+            }
+            if (b == '\\') return readEscapedString(start);
+            position++;
+        }
+
+        throw unexpected();
+    }
+
+    private @NotNull String readEscapedString(int start) throws IOException {
+        var builder = new StringBuilder(decode(start, position));
+
+        while (position < limit) {
+            byte b = buffer.get(position);
+
+            if (b == '"') {
+                position++;
+                return builder.toString();
+            }
+            if (b != '\\') {
+                int segment = position;
+                while (position < limit && (b = buffer.get(position)) != '"' && b != '\\') position++;
+                builder.append(decode(segment, position));
+                continue;
+            }
+            if (++position >= limit) break;
+
+            switch (buffer.get(position++)) {
+                case '"' -> builder.append('"');
+                case '\\' -> builder.append('\\');
+                case '/' -> builder.append('/');
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (position + 4 > limit) throw unexpected();
+                    int c = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(buffer.get(position++), 16);
+                        if (digit == -1) throw unexpected();
+                        c = (c << 4) | digit;
+                    }
+                    builder.append((char) c);
+                }
+                default -> {
+                    position--;
+                    throw unexpected();
+                }
+            }
+        }
+
+        throw unexpected();
+    }
+
+    private @NotNull String decode(int start, int end) {
+        int length = end - start;
+
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void skipValue() throws IOException {
+        switch (skipWhitespace()) {
+            case '"' -> {
+                position++;
+                while (true) {
+                    if (position >= limit) throw unexpected();
+                    byte b = buffer.get(position++);
+
+                    if (b == '"') return;
+                    if (b == '\\') position++;
+                }
+            }
+            case '{' -> {
+                position++;
+                if (consume('}')) return;
+                do {
+                    if (skipWhitespace() != '"') throw unexpected();
+                    skipValue();
+                    expect(':');
+                    skipValue();
+                } while (consume(','));
+                expect('}');
+            }
+            case '[' -> {
+                position++;
+                if (consume(']')) return;
+                do {
+                    skipValue();
+                } while (consume(','));
+                expect(']');
+            }
+            case -1, ',', ':', '}', ']' -> throw unexpected();
+            default -> {
+                // Numbers, booleans and null.
+                int start = position;
+                while (position < limit) {
+                    byte b = buffer.get(position);
+                    if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\n' || b == '\r') break;
+                    position++;
+                }
+                if (position == start) throw unexpected();
+            }
+        }
+    }
+
+    private int skipWhitespace() {
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') return b & 0xFF;
+            position++;
+        }
+        return -1;
+    }
+
+    private boolean consume(char c) {
+        if (skipWhitespace() != c) return false;
+        position++;
+        return true;
+    }
+
+    private void expect(char c) throws IOException {
+        if (!consume(c)) throw unexpected();
+    }
+
+    private @NotNull IOException unexpected() {
+        if (position >= limit) return new IOException("Unexpected end of json");
+        return new IOException("Unexpected character '" + (char) buffer.get(position) + "' at position " + position);
+    }
+
+    /**
+     * Receives the contents of a sounds.json as they are read.
+     */
+    public interface Handler {
+        /**
+         * Called when the "sounds" array of an event is found. Every {@link #sound(String)} call that follows belongs
+         * to this event.
+         *
+         * @param name The name of the event.
+         */
+        void event(@NotNull String name);
+
+        /**
+         * Called for every ogg location in the "sounds" array of the last event.
+         *
+         * @param name The ogg location.
+         */
+        void sound(@NotNull String name);
+
+        /**
+         * Called for every ogg location in the "sounds" array of the last event, with its attributes. Oggs given as
+         * strings, or without some attribute, have minecraft's defaults: volume 1, pitch 1, weight 1 and no stream. By
+         * default, calls {@link #sound(String)}.
+         *
+         * @param name   The ogg location.
+         * @param volume The volume of the ogg.
+         * @param pitch  The pitch of the ogg.
+         * @param weight The chance of the ogg being picked, relative to the other oggs of the event.
+         * @param stream Whether the ogg is streamed instead of loaded whole.
+         */
+        default void sound(@NotNull String name, float volume, float pitch, int weight, boolean stream) {
+            sound(name);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns dense int IDs to strings, so the same string is stored only once no matter how many catalogs use it. IDs
+ * start at 0 and are never reassigned. This class is thread safe.
+ */
+public final class StringDictionary {
+    private final @NotNull ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile @NotNull String[] strings = new String[1024];
+    private volatile int size = 0;
+
+    /**
+     * Gets the ID of a string, adding it to the dictionary if it's not there yet.
+     *
+     * @param string The string to get the ID.
+     * @return The ID of the string.
+     */
+    public int id(@NotNull String string) {
+        Integer id = ids.get(string);
+        if (id != null) return id;
+
+        synchronized (this) {
+            id = ids.get(string);
+            if (id != null) return id;
+
+            int newId = size;
+            if (newId == strings.length) strings = Arrays.copyOf(strings, newId * 2);
+            // The string is stored before its ID is published, so whoever sees the ID can also see the string.
+            strings[newId] = string;
+            size = newId + 1;
+            ids.put(string, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Gets the ID of a string without adding it to the dictionary.
+     *
+     * @param string The string to get the ID.
+     * @return The ID of the string, or -1 if the string is not in the dictionary.
+     */
+    public int find(@NotNull String string) {
+        Integer id = ids.get(string);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id The ID of the string.
+     * @return The string with this ID.
+     * @throws IndexOutOfBoundsException If no string has this ID.
+     */
+    public @NotNull String string(int id) {
+        if (id < 0 || id >= size) throw new IndexOutOfBoundsException(id);
+        return strings[id];
+    }
+
+    /**
+     * @return The amount of strings in this dictionary. Every ID is lower than this number.
+     */
+    public int size() {
+        return size;
+    }
+}
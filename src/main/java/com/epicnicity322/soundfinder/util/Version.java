@@ -20,28 +20,105 @@ package com.epicnicity322.soundfinder.util;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
-public record Version(@NotNull String version) implements Comparable<Version> {
+/**
+ * A version made of numeric nodes separated by dots. Versions are parsed once when created, and instances are cached,
+ * so comparing versions does not allocate.
+ */
+public final class Version implements Comparable<Version> {
     public static final @NotNull Pattern validVersion = Pattern.compile("^\\d+(\\.\\d+)+$");
-    private static final @NotNull Pattern versionSeparator = Pattern.compile("\\.");
+    private static final @NotNull ConcurrentHashMap<String, Version> cache = new ConcurrentHashMap<>();
+    private final @NotNull String version;
+    private final int @NotNull [] nodes;
+    private final int hash;
 
+    /**
+     * Creates a version that is not cached. {@link #of(String)} should be used for versions that are kept, this is for
+     * versions that are only looked up, like the ones asked by clients of a server.
+     *
+     * @param version The version string, made of numbers separated by dots.
+     * @throws IllegalArgumentException If the version string does not match {@link #validVersion}, or has a node too
+     *                                  large for an int.
+     */
     public Version(@NotNull String version) {
         if (!validVersion.matcher(version).matches())
             throw new IllegalArgumentException("'" + version + "' is not a valid version");
 
         this.version = version;
+
+        int length = 1;
+        for (int i = 0; i < version.length(); ++i) if (version.charAt(i) == '.') ++length;
+
+        nodes = new int[length];
+        int node = 0;
+        for (int i = 0; i < version.length(); ++i) {
+            char c = version.charAt(i);
+
+            if (c == '.') {
+                ++node;
+            } else {
+                try {
+                    nodes[node] = Math.addExact(Math.multiplyExact(nodes[node], 10), c - '0');
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException("'" + version + "' is not a valid version", e);
+                }
+            }
+        }
+
+        // Trailing zero nodes are ignored, so versions like 1.7 and 1.7.0 are equal and have the same hash.
+        int significant = nodes.length;
+        while (significant > 0 && nodes[significant - 1] == 0) --significant;
+        int hash = 1;
+        for (int i = 0; i < significant; ++i) hash = 31 * hash + nodes[i];
+        this.hash = hash;
+    }
+
+    /**
+     * Gets the cached instance of a version.
+     *
+     * @param version The version string, made of numbers separated by dots.
+     * @return The version instance.
+     * @throws IllegalArgumentException If the version string does not match {@link #validVersion}.
+     */
+    public static @NotNull Version of(@NotNull String version) {
+        Version cached = cache.get(version);
+        return cached != null ? cached : cache.computeIfAbsent(version, Version::new);
+    }
+
+    public @NotNull String version() {
+        return version;
+    }
+
+    /**
+     * @param index The index of the node, starting at 0 for the major version.
+     * @return The number of the node, or 0 if the version has no such node.
+     */
+    public int node(int index) {
+        return index < nodes.length ? nodes[index] : 0;
+    }
+
+    /**
+     * @return The amount of nodes of this version, ignoring trailing zero nodes.
+     */
+    public int nodes() {
+        int significant = nodes.length;
+        while (significant > 0 && nodes[significant - 1] == 0) --significant;
+        return significant;
     }
 
     @Override
     public int compareTo(@NotNull Version version) {
-        String[] versionNodes = versionSeparator.split(version());
-        String[] greaterNodes = versionSeparator.split(version.version());
+        if (this == version) return 0;
+
+        int[] versionNodes = nodes;
+        int[] greaterNodes = version.nodes;
         int length = Math.max(versionNodes.length, greaterNodes.length);
 
         for (int i = 0; i < length; ++i) {
-            int versionNode = i < versionNodes.length ? Integer.parseInt(versionNodes[i]) : 0;
-            int greaterNode = i < greaterNodes.length ? Integer.parseInt(greaterNodes[i]) : 0;
+            int versionNode = i < versionNodes.length ? versionNodes[i] : 0;
+            int greaterNode = i < greaterNodes.length ? greaterNodes[i] : 0;
 
             if (versionNode < greaterNode)
                 return -1;
@@ -60,6 +137,11 @@ public record Version(@NotNull String version) implements Comparable<Version> {
         return compareTo(that) == 0;
     }
 
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
     @Override
     public @NotNull String toString() {
         return version;
@@ -0,0 +1,114 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchTest {
+    @Test
+    void parsesJobOptions() {
+        Batch.Job job = Batch.job(new String[]{"--base", "1.21.11", "--exclude=1.7,1.7.10", "--exclude", "1.8", "--no-denominator", "--similarity", "0.4", "--out", "enum.txt", "--csv=matrix.csv", "--report", "report.json"});
+
+        assertEquals(Version.of("1.21.11"), job.base());
+        assertEquals(Set.of(Version.of("1.7"), Version.of("1.7.10"), Version.of("1.8")), job.excluded());
+        assertTrue(job.noDenominator());
+        assertEquals(0.4, job.similarity());
+        assertEquals(Map.of(Path.of("enum.txt"), SoundEmitter.Format.ENUM, Path.of("matrix.csv"), SoundEmitter.Format.CSV), job.outputs());
+        assertEquals(Path.of("report.json"), job.report());
+        assertTrue(job.sounds().isAll());
+
+        Batch.Job filtered = Batch.job(new String[]{"--sounds", "block.*,entity.warden.*", "--skip-sounds=block.note_block.*"});
+        assertTrue(filtered.sounds().test("entity.warden.roar"));
+        assertFalse(filtered.sounds().test("block.note_block.harp"));
+        assertFalse(filtered.sounds().test("music.game"));
+
+        Batch.Job changelog = Batch.job(new String[]{"--changelog", "CHANGES.md", "--exclude", "1.7", "--report", "report.json"});
+        assertEquals(Path.of("CHANGES.md"), changelog.changelog());
+        assertTrue(changelog.outputs().isEmpty());
+        assertEquals(Set.of(Path.of("CHANGES.md"), Path.of("report.json")), changelog.files());
+
+        Batch.Job defaults = Batch.job(new String[0]);
+        assertNull(defaults.base());
+        assertFalse(defaults.noDenominator());
+        assertEquals(0, defaults.similarity());
+        assertNull(defaults.report());
+        assertEquals(Map.of(Path.of("./output.txt"), SoundEmitter.Format.ENUM), defaults.outputs());
+        assertEquals(-1, defaults.port());
+        assertEquals(Runtime.getRuntime().availableProcessors(), defaults.parallelism());
+        assertEquals(3, Batch.job(new String[]{"--parallelism=3"}).parallelism());
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--parallelism", "0"}));
+
+        Batch.Job serve = Batch.job(new String[]{"--serve=8080", "--base", "1.21.11"});
+        assertEquals(8080, serve.port());
+        assertTrue(serve.outputs().isEmpty());
+    }
+
+    @Test
+    void rejectsInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--base"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--base", "latest"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--base", "1.8", "--base", "1.9"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--no-denominator=yes"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--similarity", "0"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--sounds", "block.*.break"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--changelog", "CHANGES.md", "--base", "1.21.11"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--changelog", "CHANGES.md", "--out", "enum.txt"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--similarity=most"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--serve", "http"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--serve", "8080", "--out", "enum.txt"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--out", "enum.txt", "--json", "enum.txt"}));
+        assertThrows(IllegalArgumentException.class, () -> Batch.job(new String[]{"--speedrun"}));
+    }
+
+    @Test
+    void readsOneJobPerScriptLine(@TempDir Path folder) throws IOException {
+        Path script = folder.resolve("jobs.txt");
+        Files.writeString(script, """
+                # Enums of each PlayMoreSounds branch.
+                --base 1.21.11 --out latest.txt
+
+                --base 1.8.9 --exclude 1.7 --out legacy.txt
+                """);
+
+        List<Batch.Job> jobs = Batch.jobs(new String[]{"--script", script.toString()});
+
+        assertEquals(2, jobs.size());
+        assertEquals(Set.of(Path.of("latest.txt")), jobs.get(0).outputs().keySet());
+        assertEquals(Set.of(Version.of("1.7")), jobs.get(1).excluded());
+        assertThrows(IllegalArgumentException.class, () -> Batch.jobs(new String[]{"--script", script.toString(), "--base", "1.8"}));
+
+        Files.writeString(script, """
+                --base 1.21.11
+                --base 1.8.9 --out ./output.txt
+                """);
+        assertThrows(IllegalArgumentException.class, () -> Batch.jobs(new String[]{"--script", script.toString()}));
+        assertTrue(Batch.jobs(new String[]{"--help"}).isEmpty());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import com.epicnicity322.soundfinder.util.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheTest {
+    private static final Path SOUNDS = Path.of("src", "main", "resources", "sounds");
+
+    @Test
+    void snapshotsGiveTheSameCatalogAsParsing(@TempDir Path folder) throws IOException {
+        var cache = new CatalogCache(folder);
+        ByteBuffer json = SoundsJsonReader.buffer(SOUNDS.resolve("sounds 1.12.2.json"));
+        String key = CatalogCache.key(json);
+        SoundCatalog parsed = SoundFinderManager.getSoundNamesAndOggArray(json, new StringDictionary());
+
+        assertNull(cache.read(key, new StringDictionary()));
+        cache.write(key, parsed);
+        SoundCatalog read = cache.read(key, new StringDictionary());
+        assertNotNull(read);
+        assertEquals(parsed.hasAttributes(), read.hasAttributes());
+        assertEquals(contents(parsed), contents(read));
+
+        // A dictionary that already has the event names in reverse order, so the events of the snapshot are sorted again.
+        var reversed = new StringDictionary();
+        for (int i = parsed.size() - 1; i >= 0; --i) reversed.id(parsed.eventName(i));
+        SoundCatalog sorted = cache.read(key, reversed);
+        assertNotNull(sorted);
+        assertEquals(contents(parsed), contents(sorted));
+        for (int i = 1; i < sorted.size(); ++i) assertTrue(sorted.event(i - 1) < sorted.event(i));
+        assertEquals(parsed.eventName(parsed.size() - 1), sorted.eventName(0));
+    }
+
+    @Test
+    void snapshotsKeepTheAttributesOfOggs(@TempDir Path folder) {
+        var cache = new CatalogCache(folder);
+        var builder = new SoundCatalog.Builder(new StringDictionary());
+        builder.event("block.anvil.land");
+        builder.sound("random/anvil_land");
+        builder.sound("random/anvil_break", 0.5f, 1.25f, 3, true);
+        builder.event("ambient.cave");
+        builder.sound("ambient/cave/cave1");
+        builder.event("entity.empty");
+        SoundCatalog catalog = builder.build();
+
+        cache.write("attributes", catalog);
+        SoundCatalog read = cache.read("attributes", new StringDictionary());
+        assertNotNull(read);
+        assertTrue(read.hasAttributes());
+        assertEquals(contents(catalog), contents(read));
+    }
+
+    @Test
+    void corruptedSnapshotsAreIgnored(@TempDir Path folder) throws IOException {
+        var cache = new CatalogCache(folder);
+        var builder = new SoundCatalog.Builder(new StringDictionary());
+        builder.event("ambient.cave");
+        builder.sound("ambient/cave/cave1");
+        builder.sound("ambient/cave/cave2");
+        cache.write("key", builder.build());
+        Path snapshot = snapshots(folder).get(0);
+        byte[] bytes = Files.readAllBytes(snapshot);
+
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 4));
+        assertNull(cache.read("key", new StringDictionary()));
+        Files.write(snapshot, Arrays.copyOf(bytes, 20));
+        assertNull(cache.read("key", new StringDictionary()));
+        Files.write(snapshot, new byte[0]);
+        assertNull(cache.read("key", new StringDictionary()));
+
+        byte[] magic = bytes.clone();
+        magic[0] ^= 1;
+        Files.write(snapshot, magic);
+        assertNull(cache.read("key", new StringDictionary()));
+
+        // The last ogg ID, followed by the int telling there are no attributes, now pointing past the string table.
+        byte[] ogg = bytes.clone();
+        Arrays.fill(ogg, ogg.length - 8, ogg.length - 4, (byte) 0x7f);
+        Files.write(snapshot, ogg);
+        assertNull(cache.read("key", new StringDictionary()));
+
+        Files.write(snapshot, bytes);
+        assertNotNull(cache.read("key", new StringDictionary()));
+    }
+
+    @Test
+    void changedJsonsMissTheirOldSnapshot(@TempDir Path folder) throws IOException {
+        var cache = new CatalogCache(folder);
+        byte[] bytes = Files.readAllBytes(SOUNDS.resolve("sounds 1.9.json"));
+        ByteBuffer json = ByteBuffer.wrap(bytes);
+        ByteBuffer changed = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length + 1));
+        changed.put(bytes.length, (byte) '\n');
+        String key = CatalogCache.key(json);
+        String changedKey = CatalogCache.key(changed);
+        assertNotEquals(key, changedKey);
+
+        var dictionary = new StringDictionary();
+        SoundCatalog catalog = SoundFinderManager.getCatalog(Version.of("1.9"), json, key, dictionary, new RunReport(), cache);
+        assertEquals(1, snapshots(folder).size());
+        assertNull(cache.read(changedKey, dictionary));
+
+        SoundCatalog changedCatalog = SoundFinderManager.getCatalog(Version.of("1.9"), changed, changedKey, dictionary, new RunReport(), cache);
+        assertEquals(contents(catalog), contents(changedCatalog));
+        assertEquals(2, snapshots(folder).size());
+
+        cache.delete(key);
+        assertNull(cache.read(key, dictionary));
+        assertNotNull(cache.read(changedKey, dictionary));
+    }
+
+    private static List<Path> snapshots(Path folder) throws IOException {
+        try (Stream<Path> files = Files.list(folder)) {
+            return files.filter(file -> file.toString().endsWith(".catalog")).toList();
+        }
+    }
+
+    /**
+     * The events of a catalog with their oggs and attributes, in order of event name.
+     */
+    private static List<String> contents(SoundCatalog catalog) {
+        var contents = new ArrayList<String>(catalog.size());
+        for (int i = 0; i < catalog.size(); ++i) {
+            var event = new StringBuilder(catalog.eventName(i));
+            for (int o = catalog.oggStart(i); o < catalog.oggEnd(i); ++o) {
+                event.append(' ').append(catalog.oggName(o)).append(' ').append(catalog.volume(o)).append(' ')
+                        .append(catalog.pitch(o)).append(' ').append(catalog.weight(o)).append(' ').append(catalog.stream(o));
+            }
+            contents.add(event.toString());
+        }
+        Collections.sort(contents);
+        return contents;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import com.epicnicity322.soundfinder.util.Version;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangelogTest {
+    private final StringDictionary dictionary = new StringDictionary();
+
+    @Test
+    void diffsEveryVersionAgainstTheOneBefore() throws IOException {
+        SoundCatalog first = catalog("""
+                {
+                  "mob.zombie.say": {"sounds": ["mob/zombie/say1", "mob/zombie/say2"]},
+                  "random.click": {"sounds": ["random/click"]},
+                  "random.pop": {"sounds": ["random/pop"]},
+                  "silent": {"sounds": []}
+                }""");
+        SoundCatalog second = catalog("""
+                {
+                  "entity.zombie.ambient": {"sounds": ["mob/zombie/say2", "mob/zombie/say1", "mob/zombie/say1"]},
+                  "random.click": {"sounds": ["random/click"]},
+                  "ui.button.click": {"sounds": ["random/click"]},
+                  "muted": {"sounds": []}
+                }""");
+
+        var versions = new TreeMap<Version, SoundCatalog>();
+        versions.put(Version.of("1.8"), first);
+        versions.put(Version.of("1.8.9"), first);
+        versions.put(Version.of("1.9"), second);
+
+        List<Changelog.Change> changes = Changelog.of(versions, SoundFilter.ALL);
+        assertEquals(2, changes.size());
+        assertTrue(changes.get(0).isEmpty());
+
+        Changelog.Change change = changes.get(1);
+        assertEquals(Version.of("1.8.9"), change.from());
+        assertEquals(List.of("muted", "ui.button.click"), change.added());
+        assertEquals(List.of("random.pop", "silent"), change.removed());
+        assertEquals(List.of(new Changelog.Rename("mob.zombie.say", "entity.zombie.ambient")), change.renamed());
+
+        // Renames are kept if either name is selected.
+        Changelog.Change filtered = Changelog.of(versions, new SoundFilter(List.of("entity.*"), List.of())).get(1);
+        assertEquals(List.of(), filtered.added());
+        assertEquals(List.of(), filtered.removed());
+        assertEquals(change.renamed(), filtered.renamed());
+
+        var writer = new StringWriter();
+        Changelog.write(changes, writer);
+        assertEquals("""
+                # Sound changelog
+
+                ## 1.8.9 (from 1.8)
+
+                No changes.
+
+                ## 1.9 (from 1.8.9)
+
+                Added:
+                - `muted`
+                - `ui.button.click`
+
+                Removed:
+                - `random.pop`
+                - `silent`
+
+                Renamed:
+                - `mob.zombie.say` -> `entity.zombie.ambient`
+                """, writer.toString());
+    }
+
+    private SoundCatalog catalog(String json) throws IOException {
+        var builder = new SoundCatalog.Builder(dictionary);
+        SoundsJsonReader.read(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)), builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import com.epicnicity322.soundfinder.util.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaEmitterTest {
+    private static final Path SOUNDS = Path.of("src", "main", "resources", "sounds");
+
+    @Test
+    void generatedLookupResolvesEverySoundInEveryVersion(@TempDir Path folder) throws Exception {
+        var dictionary = new StringDictionary();
+        var versions = new TreeMap<Version, SoundCatalog>();
+        for (String version : new String[]{"1.7", "1.8.9", "1.12.2", "1.16.5", "1.21.11"}) {
+            var builder = new SoundCatalog.Builder(dictionary);
+            SoundsJsonReader.read(SoundsJsonReader.buffer(SOUNDS.resolve("sounds " + version + ".json")), builder);
+            versions.put(Version.of(version), builder.build());
+        }
+
+        var table = new SoundTable(new Base(Version.of("1.21.11"), versions.get(Version.of("1.21.11"))));
+        var report = new RunReport();
+        for (var version : versions.entrySet()) table.put(version.getKey(), version.getValue(), report);
+
+        var source = new StringWriter();
+        var rows = new TreeMap<String, TreeMap<Version, String>>();
+        SoundEmitter emitter = SoundEmitter.Format.JAVA.emitter(source, true);
+        emitter.begin(table.versions());
+        table.rows((enumName, names) -> {
+            rows.put(enumName, names);
+            emitter.sound(enumName, names, SoundEmitter.ranges(names));
+        });
+        emitter.end();
+
+        Path file = folder.resolve("SoundLookup.java");
+        Files.writeString(file, source.toString());
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", folder.toString(), file.toString()));
+
+        try (var loader = new URLClassLoader(new URL[]{folder.toUri().toURL()}, null)) {
+            Class<?> lookup = loader.loadClass("SoundLookup");
+            Method sound = lookup.getMethod("sound", String.class, int.class);
+            Method version = lookup.getMethod("version", String.class);
+
+            for (var row : rows.entrySet()) {
+                for (Version v : versions.keySet()) {
+                    assertEquals(row.getValue().get(v), sound.invoke(null, row.getKey(), version.invoke(null, v.version())), row.getKey() + " in " + v);
+                }
+            }
+
+            // Versions between the ones of a range have the name of the range.
+            assertEquals("mob.zombie.say", sound.invoke(null, "ENTITY_ZOMBIE_AMBIENT", version.invoke(null, "1.8.5")));
+            assertNull(sound.invoke(null, "ENTITY_ZOMBIE_AMBIENT", version.invoke(null, "1.6.4")));
+            assertNull(sound.invoke(null, "NOT_A_SOUND", version.invoke(null, "1.21.11")));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashIndexTest {
+    private static final Path SOUNDS = Path.of("src", "main", "resources", "sounds");
+    private final StringDictionary dictionary = new StringDictionary();
+
+    @Test
+    void takesTheMostSimilarSoundInsteadOfAContainedOne() {
+        var builder = new SoundCatalog.Builder(dictionary);
+        builder.event("a.partly.moved");
+        for (String ogg : new String[]{"a/1", "a/2", "a/3", "b/4"}) builder.sound(ogg);
+        builder.event("b.contained");
+        builder.sound("a/1");
+        builder.event("c.unrelated");
+        builder.sound("c/1");
+        SoundCatalog catalog = builder.build();
+
+        var index = new MinHashIndex(catalog);
+        int[] oggs = oggs("a/1", "a/2", "a/3", "a/4");
+
+        MinHashIndex.Match match = index.match(oggs, oggs.length, 0.5);
+        assertNotNull(match);
+        assertEquals("a.partly.moved", dictionary.string(match.event()));
+        assertEquals(0.6, match.similarity(), 1e-9);
+        assertNull(index.match(oggs, oggs.length, 0.7));
+        assertNull(index.match(oggs, 0, 0.1));
+    }
+
+    @Test
+    void findsTheSameMatchesAsComparingEverySound() throws IOException {
+        SoundCatalog base = catalog("1.8.9");
+        SoundCatalog version = catalog("1.21.11");
+        var index = new MinHashIndex(version);
+        var scratch = new int[1024];
+        var other = new int[1024];
+        int found = 0;
+
+        for (int i = 0; i < base.size(); ++i) {
+            int count = SoundMatcher.distinctOggs(base, i, scratch);
+            if (count == 0) continue;
+
+            double best = 0;
+            for (int e = 0; e < version.size(); ++e) {
+                best = Math.max(best, MinHashIndex.jaccard(scratch, count, other, SoundMatcher.distinctOggs(version, e, other)));
+            }
+
+            MinHashIndex.Match match = index.match(scratch, count, 0.5);
+            // Sounds at least half similar share a band with a chance of over 99.9%.
+            if (best < 0.5) {
+                assertNull(match);
+            } else {
+                assertNotNull(match);
+                assertEquals(best, match.similarity());
+                ++found;
+            }
+        }
+
+        assertTrue(found > 0);
+    }
+
+    private int[] oggs(String... oggs) {
+        int[] ids = new int[oggs.length];
+        for (int i = 0; i < oggs.length; ++i) ids[i] = dictionary.id(oggs[i]);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private SoundCatalog catalog(String version) throws IOException {
+        var builder = new SoundCatalog.Builder(dictionary);
+        SoundsJsonReader.read(SoundsJsonReader.buffer(SOUNDS.resolve("sounds " + version + ".json")), builder);
+        return builder.build();
+    }
+}
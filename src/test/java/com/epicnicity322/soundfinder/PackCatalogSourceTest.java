@@ -0,0 +1,79 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackCatalogSourceTest {
+    private static final Path SOUNDS = Path.of("src", "main", "resources", "sounds");
+
+    @Test
+    void packedJsonsHaveTheSameCatalogsAsTheOriginals(@TempDir Path folder) throws IOException {
+        Path pack = folder.resolve(PackCatalogSource.PACK);
+        Path manifest = folder.resolve(PackCatalogSource.MANIFEST);
+        int packed = PackCatalogSource.write(SOUNDS, pack, manifest);
+
+        var source = new PackCatalogSource(ByteBuffer.wrap(Files.readAllBytes(pack)), Files.readString(manifest));
+        var originals = new FolderCatalogSource(SOUNDS).entries();
+
+        assertEquals(originals.size(), source.entries().size());
+        assertTrue(packed < originals.size());
+
+        var dictionary = new StringDictionary();
+        for (CatalogSource.Entry entry : source.entries()) {
+            SoundCatalog catalog = catalog(entry.read(), dictionary);
+            SoundCatalog original = catalog(SoundsJsonReader.buffer(SOUNDS.resolve(entry.name())), dictionary);
+
+            assertEquals(original.size(), catalog.size(), entry.name());
+            for (int i = 0; i < original.size(); ++i) {
+                assertEquals(original.event(i), catalog.event(i));
+                assertEquals(original.oggEnd(i) - original.oggStart(i), catalog.oggEnd(i) - catalog.oggStart(i));
+                for (int o = 0; o < original.oggEnd(i) - original.oggStart(i); ++o) {
+                    int originalPosition = original.oggStart(i) + o, position = catalog.oggStart(i) + o;
+                    assertEquals(original.ogg(originalPosition), catalog.ogg(position));
+                    assertEquals(original.volume(originalPosition), catalog.volume(position));
+                    assertEquals(original.pitch(originalPosition), catalog.pitch(position));
+                    assertEquals(original.weight(originalPosition), catalog.weight(position));
+                    assertEquals(original.stream(originalPosition), catalog.stream(position));
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidPacks() {
+        assertThrows(IOException.class, () -> new PackCatalogSource(ByteBuffer.wrap(new byte[12]), ""));
+    }
+
+    private static SoundCatalog catalog(ByteBuffer json, StringDictionary dictionary) throws IOException {
+        var builder = new SoundCatalog.Builder(dictionary);
+        SoundsJsonReader.read(json, builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import com.epicnicity322.soundfinder.util.Version;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryServerTest {
+    private static final Path SOUNDS = Path.of("src", "main", "resources", "sounds");
+    private final StringDictionary dictionary = new StringDictionary();
+
+    @Test
+    void servesOnlyTheSoundsSelectedByTheFilter() throws Exception {
+        var versions = new TreeMap<Version, SoundCatalog>();
+        for (String version : new String[]{"1.8.9", "1.16.5", "1.21.11"}) versions.put(Version.of(version), catalog(version));
+
+        Batch.Job job = Batch.job(new String[]{"--serve", "0", "--base", "1.21.11", "--sounds", "entity.zombie.*"});
+        var queryServer = new QueryServer(job, Version.of("1.21.11"), versions, new MatchIndexes(), new RunReport(), null);
+        queryServer.prepare();
+        HttpServer server = queryServer.start();
+
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            String address = "http://localhost:" + server.getAddress().getPort();
+
+            HttpResponse<String> zombie = get(client, address + "/name?sound=entity.zombie.ambient&version=1.8.9");
+            assertEquals(200, zombie.statusCode());
+            assertEquals("{\"sound\": \"entity.zombie.ambient\", \"base\": \"1.21.11\", \"names\": {\"1.8.9\": \"mob.zombie.say\"}}", zombie.body().strip());
+
+            HttpResponse<String> cave = get(client, address + "/name?sound=ambient.cave");
+            assertEquals(404, cave.statusCode());
+            assertTrue(cave.body().contains("--sounds"), cave.body());
+
+            assertEquals(404, get(client, address + "/name?sound=weather.rain").statusCode());
+            assertEquals(404, get(client, address + "/name?sound=entity.unknown").statusCode());
+        } finally {
+            QueryServer.stop(server);
+        }
+    }
+
+    @Test
+    void malformedLookupsAnswerBadRequest() throws Exception {
+        var versions = new TreeMap<Version, SoundCatalog>();
+        for (String version : new String[]{"1.8.9", "1.21.11"}) versions.put(Version.of(version), catalog(version));
+
+        Batch.Job job = Batch.job(new String[]{"--serve", "0", "--base", "1.21.11"});
+        var queryServer = new QueryServer(job, Version.of("1.21.11"), versions, new MatchIndexes(), new RunReport(), null);
+        queryServer.prepare();
+        HttpServer server = queryServer.start();
+
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            int port = server.getAddress().getPort();
+            String address = "http://localhost:" + port;
+
+            // HttpClient doesn't send invalid escapes, so the request is written by hand.
+            try (var socket = new Socket(server.getAddress().getAddress(), port)) {
+                OutputStream out = socket.getOutputStream();
+                out.write("GET /name?version=%zz&sound=entity.zombie.ambient HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                InputStream in = socket.getInputStream();
+                assertTrue(new String(in.readAllBytes(), StandardCharsets.UTF_8).startsWith("HTTP/1.1 400"));
+            }
+
+            HttpResponse<String> overflow = get(client, address + "/name?sound=entity.zombie.ambient&version=1.99999999999");
+            assertEquals(400, overflow.statusCode());
+            assertTrue(overflow.body().contains("Unknown version"), overflow.body());
+
+            HttpResponse<String> batch = client.send(HttpRequest.newBuilder(URI.create(address + "/batch"))
+                    .POST(HttpRequest.BodyPublishers.ofString("/name?sound=%zz\n/name?sound=entity.zombie.ambient&version=1.8.9\n")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, batch.statusCode());
+            String[] lines = batch.body().strip().split("\n");
+            assertEquals(4, lines.length, batch.body());
+            assertTrue(lines[1].startsWith("  {\"error\": "), lines[1]);
+            assertEquals("  {\"sound\": \"entity.zombie.ambient\", \"base\": \"1.21.11\", \"names\": {\"1.8.9\": \"mob.zombie.say\"}}", lines[2]);
+        } finally {
+            QueryServer.stop(server);
+        }
+    }
+
+    private static HttpResponse<String> get(HttpClient client, String uri) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(uri)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private SoundCatalog catalog(String version) throws IOException {
+        var builder = new SoundCatalog.Builder(dictionary);
+        SoundsJsonReader.read(SoundsJsonReader.buffer(SOUNDS.resolve("sounds " + version + ".json")), builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import com.epicnicity322.soundfinder.util.Version;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SoundEmitterTest {
+    private static final TreeMap<Version, String> cave = new TreeMap<>();
+    private static final TreeMap<Version, String> click = new TreeMap<>();
+
+    static {
+        cave.put(Version.of("1.8"), "ambient.cave.cave");
+        cave.put(Version.of("1.8.9"), "ambient.cave.cave");
+        cave.put(Version.of("1.9"), "ambient.cave");
+        cave.put(Version.of("1.10"), "ambient.cave");
+        click.put(Version.of("1.9"), "ui.button.click");
+    }
+
+    @Test
+    void groupsConsecutiveVersionsWithTheSameName() {
+        assertEquals(List.of(new SoundEmitter.Range(Version.of("1.8"), Version.of("1.8.9"), "ambient.cave.cave"),
+                new SoundEmitter.Range(Version.of("1.9"), Version.of("1.10"), "ambient.cave")), SoundEmitter.ranges(cave));
+        assertEquals(List.of(new SoundEmitter.Range(Version.of("1.9"), Version.of("1.9"), "ui.button.click")), SoundEmitter.ranges(click));
+    }
+
+    @Test
+    void writesEveryFormat() throws IOException {
+        assertEquals("""
+                AMBIENT_CAVE("1.8-1.8.9 ambient.cave.cave", "1.9-1.10 ambient.cave"),
+                UI_BUTTON_CLICK("1.9-1.9 ui.button.click");""", emit(SoundEmitter.Format.ENUM));
+        assertEquals("""
+                {
+                  "AMBIENT_CAVE": {"1.8-1.8.9": "ambient.cave.cave", "1.9-1.10": "ambient.cave"},
+                  "UI_BUTTON_CLICK": {"1.9-1.9": "ui.button.click"}
+                }
+                """, emit(SoundEmitter.Format.JSON));
+        assertEquals("""
+                AMBIENT_CAVE:
+                  "1.8-1.8.9": "ambient.cave.cave"
+                  "1.9-1.10": "ambient.cave"
+                UI_BUTTON_CLICK:
+                  "1.9-1.9": "ui.button.click"
+                """, emit(SoundEmitter.Format.YAML));
+        assertEquals("""
+                sound,1.8,1.8.9,1.9,1.10
+                AMBIENT_CAVE,ambient.cave.cave,ambient.cave.cave,ambient.cave,ambient.cave
+                UI_BUTTON_CLICK,,,ui.button.click,
+                """, emit(SoundEmitter.Format.CSV));
+    }
+
+    @Test
+    void writesAttributesOfTheBase() throws IOException {
+        var builder = new SoundCatalog.Builder(new StringDictionary());
+        SoundsJsonReader.read(ByteBuffer.wrap("""
+                {
+                  "ambient.cave": {"sounds": ["ambient/cave/cave1", {"name": "ambient/cave/cave2", "volume": 0.5, "pitch": 0.8, "weight": 2, "stream": true}]},
+                  "ui.button.click": {"sounds": ["random/click"]}
+                }""".getBytes(StandardCharsets.UTF_8)), builder);
+        SoundCatalog base = builder.build();
+
+        assertEquals("""
+                {
+                  "AMBIENT_CAVE": [{"name": "ambient/cave/cave1", "volume": 1.0, "pitch": 1.0, "weight": 1, "stream": false}, {"name": "ambient/cave/cave2", "volume": 0.5, "pitch": 0.8, "weight": 2, "stream": true}],
+                  "UI_BUTTON_CLICK": [{"name": "random/click", "volume": 1.0, "pitch": 1.0, "weight": 1, "stream": false}]
+                }
+                """, emit(writer -> SoundEmitter.Format.ATTRIBUTES.emitter(writer, true, base)));
+        assertThrows(IllegalArgumentException.class, () -> SoundEmitter.Format.ATTRIBUTES.emitter(new StringWriter(), true));
+    }
+
+    private static String emit(SoundEmitter.Format format) throws IOException {
+        return emit(writer -> format.emitter(writer, true));
+    }
+
+    private static String emit(Function<Writer, SoundEmitter> emitters) throws IOException {
+        var writer = new StringWriter();
+        SoundEmitter emitter = emitters.apply(writer);
+
+        emitter.begin(cave.keySet());
+        emitter.sound("AMBIENT_CAVE", cave, SoundEmitter.ranges(cave));
+        emitter.sound("UI_BUTTON_CLICK", click, SoundEmitter.ranges(click));
+        emitter.end();
+        return writer.toString();
+    }
+}
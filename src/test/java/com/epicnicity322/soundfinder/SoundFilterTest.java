@@ -0,0 +1,70 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoundFilterTest {
+    @Test
+    void selectsPrefixesAndNames() throws IOException {
+        var builder = new SoundCatalog.Builder(new StringDictionary());
+        SoundsJsonReader.read(SoundsJsonReader.buffer(Path.of("src", "main", "resources", "sounds", "sounds 1.21.11.json")), builder);
+        SoundCatalog catalog = builder.build();
+
+        var filter = new SoundFilter(List.of("entity.zombie.*", "block.chest.open", "block.nope"), List.of("entity.zombie.step", "entity.zombie.attack_*"));
+        SoundCatalog filtered = filter.apply(catalog);
+
+        var expected = new ArrayList<String>();
+        for (int i = 0; i < catalog.size(); ++i) {
+            if (filter.test(catalog.eventName(i))) expected.add(catalog.eventName(i));
+        }
+        assertEquals(expected, names(filtered));
+        assertTrue(names(filtered).contains("entity.zombie.ambient"));
+        assertTrue(names(filtered).contains("block.chest.open"));
+        // The prefix keeps the dot, so entity.zombie_villager.* is not selected.
+        assertTrue(names(filtered).stream().noneMatch(name -> name.startsWith("entity.zombie_") || name.startsWith("entity.zombie.attack_")));
+        assertFalse(names(filtered).contains("entity.zombie.step"));
+
+        for (int i = 0; i < filtered.size(); ++i) {
+            int index = catalog.indexOf(filtered.event(i));
+            assertEquals(catalog.oggEnd(index) - catalog.oggStart(index), filtered.oggEnd(i) - filtered.oggStart(i));
+        }
+
+        assertSame(catalog, SoundFilter.ALL.apply(catalog));
+        assertSame(catalog, new SoundFilter(List.of("*"), List.of()).apply(catalog));
+        assertTrue(new SoundFilter(List.of("*"), List.of("*")).apply(catalog).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new SoundFilter(List.of("entity.*.step"), List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new SoundFilter(List.of(), List.of("")));
+    }
+
+    private static List<String> names(SoundCatalog catalog) {
+        var names = new ArrayList<String>();
+        for (int i = 0; i < catalog.size(); ++i) names.add(catalog.eventName(i));
+        return names;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoundFinderSessionTest {
+    private static final Path SOUNDS = Path.of("src", "main", "resources", "sounds");
+
+    @Test
+    void generatesInMemory(@TempDir Path folder) throws IOException {
+        Files.copy(SOUNDS.resolve("sounds 1.9.json"), folder.resolve("sounds 1.9.json"));
+        Files.copy(SOUNDS.resolve("sounds 1.21.11.json"), folder.resolve("sounds 1.21.11.json"));
+        Files.writeString(folder.resolve("sounds 1.8.json"), "{\"broken\": ");
+
+        SoundFinderSession session = SoundFinderSession.load(List.of(new FolderCatalogSource(folder)));
+        assertEquals(List.of("sounds 1.8.json"), session.unparsable());
+        assertEquals(Set.of(Version.of("1.9"), Version.of("1.21.11")), session.versions().keySet());
+
+        Version base = Version.of("1.21.11");
+        SoundTable table = session.table(base);
+        assertEquals(SoundMatcher.soundVersionName(new Base(base, session.versions().get(base)), new TreeMap<>(session.versions())),
+                SoundFinderSession.sounds(table));
+
+        String enums = SoundFinderSession.emit(table, SoundEmitter.Format.ENUM, true);
+        assertTrue(enums.contains("AMBIENT_CAVE(\"1.9-1.21.11 ambient.cave\")"), enums);
+        assertTrue(SoundFinderSession.emit(table, SoundEmitter.Format.ATTRIBUTES, true).startsWith("{\n  \"AMBIENT_BASALT_DELTAS_ADDITIONS\": [{"));
+
+        SoundTable filtered = session.table(base, Set.of(Version.of("1.9")), new SoundFilter(List.of("ambient.cave"), List.of()), 0, new RunReport());
+        assertEquals("AMBIENT_CAVE(\"ambient.cave\");", SoundFinderSession.emit(filtered, SoundEmitter.Format.ENUM, false).strip());
+        assertEquals(1, session.changelog(Set.of(), SoundFilter.ALL).size());
+
+        assertThrows(IllegalArgumentException.class, () -> session.table(Version.of("1.8")));
+        assertThrows(IllegalArgumentException.class, () -> session.table(base, Set.of(Version.of("1.7")), SoundFilter.ALL, 0, new RunReport()));
+        assertThrows(IllegalArgumentException.class, () -> SoundFinderSession.emit(table, SoundEmitter.Format.ENUM, false));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import com.epicnicity322.soundfinder.util.Version;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoundMatcherTest {
+    private static final StringDictionary dictionary = new StringDictionary();
+    private static TreeMap<Version, SoundCatalog> versions;
+
+    @BeforeAll
+    static void load() throws IOException {
+        versions = new TreeMap<>();
+
+        try (DirectoryStream<Path> jsons = Files.newDirectoryStream(Path.of("src", "main", "resources", "sounds"), "*.json")) {
+            for (Path json : jsons) {
+                String name = json.getFileName().toString();
+                versions.put(Version.of(name.substring(name.lastIndexOf(' ') + 1, name.lastIndexOf('.'))), catalog(SoundsJsonReader.buffer(json)));
+            }
+        }
+    }
+
+    @Test
+    void matchesByNameThenByContainedOggs() throws IOException {
+        var matcher = new SoundMatcher(catalog(ByteBuffer.wrap("""
+                {
+                  "b.click": {"sounds": ["random/click"]},
+                  "a.click": {"sounds": ["random/click", "random/click2", "random/click"]},
+                  "c.click": {"sounds": ["random/click"]},
+                  "silent": {"sounds": []}
+                }""".getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals("silent", match(matcher, "silent"));
+        assertEquals("b.click", match(matcher, "ui.click", "random/click", "other"));
+        assertEquals("a.click", match(matcher, "ui.click", "random/click", "random/click2"));
+        assertNull(match(matcher, "ui.click", "random/click2"));
+        assertNull(match(matcher, "ui.click"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1.7", "1.9", "1.13", "1.16.5", "1.20.5", "1.21.11"})
+    void findsTheSameNamesAsScanningEveryVersion(String base) {
+        Version version = Version.of(base);
+        assertEquals(scan(version), SoundMatcher.soundVersionName(new Base(version, versions.get(version)), versions));
+    }
+
+    /**
+     * How sounds were matched before the indexes: looking for the same name in every version, then for the first sound
+     * in name order whose oggs are all in the oggs of the base sound.
+     */
+    private static TreeMap<String, TreeMap<Version, String>> scan(Version base) {
+        var sounds = new TreeMap<Version, TreeMap<String, List<String>>>();
+        for (Map.Entry<Version, SoundCatalog> version : versions.entrySet()) sounds.put(version.getKey(), sounds(version.getValue()));
+
+        var rows = new TreeMap<String, TreeMap<Version, String>>();
+        for (Map.Entry<String, List<String>> sound : sounds.get(base).entrySet()) {
+            for (Map.Entry<Version, TreeMap<String, List<String>>> version : sounds.entrySet()) {
+                String found = version.getValue().containsKey(sound.getKey()) ? sound.getKey() : null;
+
+                if (found == null && !sound.getValue().isEmpty()) {
+                    for (Map.Entry<String, List<String>> other : version.getValue().entrySet()) {
+                        if (!other.getValue().isEmpty() && sound.getValue().containsAll(other.getValue())) {
+                            found = other.getKey();
+                            break;
+                        }
+                    }
+                }
+                if (found != null) {
+                    rows.computeIfAbsent(sound.getKey().toUpperCase().replace('.', '_'), name -> new TreeMap<>()).put(version.getKey(), found);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static @Nullable String match(SoundMatcher matcher, String name, String... oggs) {
+        int[] ids = Arrays.stream(oggs).mapToInt(dictionary::id).distinct().toArray();
+        int match = matcher.match(dictionary.id(name), ids, ids.length);
+        return match == -1 ? null : dictionary.string(match);
+    }
+
+    private static SoundCatalog catalog(ByteBuffer json) throws IOException {
+        var builder = new SoundCatalog.Builder(dictionary);
+        SoundsJsonReader.read(json, builder);
+        return builder.build();
+    }
+
+    private static TreeMap<String, List<String>> sounds(SoundCatalog catalog) {
+        var sounds = new TreeMap<String, List<String>>();
+        for (int i = 0; i < catalog.size(); ++i) {
+            var oggs = new ArrayList<String>();
+            for (int o = catalog.oggStart(i); o < catalog.oggEnd(i); ++o) oggs.add(catalog.oggName(o));
+            sounds.put(catalog.eventName(i), oggs);
+        }
+        return sounds;
+    }
+}
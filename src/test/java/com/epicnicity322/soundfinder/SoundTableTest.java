@@ -0,0 +1,208 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.SoundsJsonReader;
+import com.epicnicity322.soundfinder.util.StringDictionary;
+import com.epicnicity322.soundfinder.util.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoundTableTest {
+    private static final Path SOUNDS = Path.of("src", "main", "resources", "sounds");
+    private final StringDictionary dictionary = new StringDictionary();
+
+    @Test
+    void replacingAndRemovingVersionsGivesTheSameRowsAsMatchingAgain() throws IOException {
+        var versions = new TreeMap<Version, SoundCatalog>();
+        for (String version : new String[]{"1.8.9", "1.12.2", "1.16.5", "1.21.11"}) versions.put(Version.of(version), catalog(version));
+
+        var base = new Base(Version.of("1.16.5"), versions.get(Version.of("1.16.5")));
+        var table = new SoundTable(base);
+        var report = new RunReport();
+        for (var version : versions.entrySet()) table.put(version.getKey(), version.getValue(), report);
+
+        // 1.12.2 now has the sounds of 1.7, and 1.8.9 is gone.
+        versions.put(Version.of("1.12.2"), catalog("1.7"));
+        versions.remove(Version.of("1.8.9"));
+        table.put(Version.of("1.12.2"), versions.get(Version.of("1.12.2")), report);
+        assertTrue(table.remove(Version.of("1.8.9")));
+        assertFalse(table.remove(Version.of("1.8.9")));
+
+        var rows = new TreeMap<String, TreeMap<Version, String>>();
+        table.rows(rows::put);
+
+        assertEquals(versions.keySet(), table.versions());
+        assertEquals(SoundMatcher.soundVersionName(base, versions), rows);
+    }
+
+    @Test
+    void tablesSharingIndexesFromManyThreadsGiveTheSameRows() throws Exception {
+        var versions = new TreeMap<Version, SoundCatalog>();
+        for (String version : new String[]{"1.7", "1.12.2", "1.16.5", "1.21.11"}) versions.put(Version.of(version), catalog(version));
+
+        var indexes = new MatchIndexes();
+        var pool = Executors.newFixedThreadPool(versions.size());
+        try {
+            var futures = new ArrayList<Future<TreeMap<String, TreeMap<Version, String>>>>();
+            for (var base : versions.entrySet()) {
+                futures.add(pool.submit(() -> {
+                    var table = new SoundTable(new Base(base.getKey(), base.getValue()), 0.5, indexes);
+                    var report = new RunReport();
+                    for (var version : versions.entrySet()) table.put(version.getKey(), version.getValue(), report);
+
+                    var rows = new TreeMap<String, TreeMap<Version, String>>();
+                    table.rows(rows::put);
+                    return rows;
+                }));
+            }
+
+            int i = 0;
+            for (var base : versions.entrySet()) {
+                var table = new SoundTable(new Base(base.getKey(), base.getValue()), 0.5);
+                var report = new RunReport();
+                for (var version : versions.entrySet()) table.put(version.getKey(), version.getValue(), report);
+
+                var rows = new TreeMap<String, TreeMap<Version, String>>();
+                table.rows(rows::put);
+                assertEquals(rows, futures.get(i++).get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void streamingVersionsGivesTheSameRowsAsLoadingThemAll(@TempDir Path folder) throws IOException {
+        List<CatalogSource> sources = List.of(new FolderCatalogSource(SOUNDS));
+        var cache = new CatalogCache(folder);
+        var excluded = Set.of(Version.of("1.7"), Version.of("1.13"));
+        var report = new RunReport();
+
+        var versions = SoundFinderManager.getAvailableVersions(sources, report, cache);
+        var base = new Base(Version.of("1.12.2"), versions.get(Version.of("1.12.2")));
+        versions.keySet().removeAll(excluded);
+
+        var pool = new ForkJoinPool(2);
+        final SoundTable table;
+        try {
+            table = SoundFinderManager.streamTable(sources, base.version(), excluded, SoundFilter.ALL, 0, pool, report, cache);
+        } finally {
+            pool.shutdown();
+        }
+        var rows = new TreeMap<String, TreeMap<Version, String>>();
+        table.rows(rows::put);
+
+        assertEquals(versions.keySet(), table.versions());
+        assertEquals(SoundMatcher.soundVersionName(base, versions), rows);
+        assertThrows(IllegalArgumentException.class, () -> SoundFinderManager.streamTable(sources, Version.of("1.0"), Set.of(), SoundFilter.ALL, 0, null, report, cache));
+    }
+
+    @Test
+    void versionsWithIdenticalJsonsShareTheirCatalogAndColumn(@TempDir Path folder) throws IOException {
+        Path jsons = Files.createDirectory(folder.resolve("sounds"));
+        for (String version : new String[]{"1.12.2", "1.16.5"}) {
+            Files.copy(SOUNDS.resolve("sounds " + version + ".json"), jsons.resolve("sounds " + version + ".json"));
+        }
+        Files.copy(SOUNDS.resolve("sounds 1.12.2.json"), jsons.resolve("sounds 1.12.json"));
+        var report = new RunReport();
+        var versions = SoundFinderManager.getAvailableVersions(List.of(new FolderCatalogSource(jsons)), report, null);
+
+        assertSame(versions.get(Version.of("1.12")), versions.get(Version.of("1.12.2")));
+        assertEquals(3, report.filesRead());
+        assertEquals(2, report.filesParsed());
+        assertEquals(1, report.filesShared());
+
+        var table = new SoundTable(new Base(Version.of("1.16.5"), versions.get(Version.of("1.16.5"))));
+        table.putAll(versions, report);
+        assertSame(table.column(Version.of("1.12")), table.column(Version.of("1.12.2")));
+
+        // The same jsons loaded apart, each parsed and matched on its own.
+        var separate = new TreeMap<Version, SoundCatalog>();
+        for (String version : new String[]{"1.12", "1.12.2"}) separate.put(Version.of(version), catalog("1.12.2"));
+        separate.put(Version.of("1.16.5"), catalog("1.16.5"));
+        var separateTable = new SoundTable(new Base(Version.of("1.16.5"), separate.get(Version.of("1.16.5"))));
+        separateTable.putAll(separate, new RunReport());
+        assertNotSame(separateTable.column(Version.of("1.12")), separateTable.column(Version.of("1.12.2")));
+
+        var rows = new TreeMap<String, TreeMap<Version, String>>();
+        table.rows(rows::put);
+        var separateRows = new TreeMap<String, TreeMap<Version, String>>();
+        separateTable.rows(separateRows::put);
+        assertEquals(separateRows, rows);
+    }
+
+    @Test
+    void matchingInParallelGivesTheSameTableAsMatchingInOrder() throws IOException {
+        var versions = new TreeMap<Version, SoundCatalog>();
+        for (String version : new String[]{"1.7", "1.9", "1.12.2", "1.16.5", "1.21.11"}) versions.put(Version.of(version), catalog(version));
+        var base = new Base(Version.of("1.21.11"), versions.get(Version.of("1.21.11")));
+
+        for (double similarity : new double[]{0, 0.4}) {
+            var sequential = new SoundTable(base, similarity);
+            var sequentialReport = new RunReport();
+            for (var version : versions.entrySet()) sequential.put(version.getKey(), version.getValue(), sequentialReport);
+
+            var parallel = new SoundTable(base, similarity);
+            var parallelReport = new RunReport();
+            parallel.putAll(versions, parallelReport, 4);
+
+            var sequentialRows = new TreeMap<String, TreeMap<Version, String>>();
+            sequential.rows(sequentialRows::put);
+            var parallelRows = new TreeMap<String, TreeMap<Version, String>>();
+            parallel.rows(parallelRows::put);
+
+            assertEquals(sequentialRows, parallelRows);
+            assertEquals(json(sequentialReport), json(parallelReport));
+        }
+    }
+
+    /**
+     * The counts of a report, without its times.
+     */
+    private static String json(RunReport report) throws IOException {
+        Path file = Files.createTempFile("report", ".json");
+        try {
+            report.write(file);
+            String json = Files.readString(file);
+            return json.substring(json.indexOf("\"matches\""), json.indexOf("\"peakHeapBytes\""));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private SoundCatalog catalog(String version) throws IOException {
+        var builder = new SoundCatalog.Builder(dictionary);
+        SoundsJsonReader.read(SoundsJsonReader.buffer(SOUNDS.resolve("sounds " + version + ".json")), builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder;
+
+import com.epicnicity322.soundfinder.util.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatchTest {
+    private static final Path SOUNDS = Path.of("src", "main", "resources", "sounds");
+
+    @Test
+    void onlyJsonsWhoseContentsChangedAreMatchedAgain(@TempDir Path folder) throws IOException {
+        Path jsons = Files.createDirectory(folder.resolve("sounds"));
+        for (String version : new String[]{"1.8.9", "1.12.2", "1.21.11"}) {
+            Files.copy(SOUNDS.resolve("sounds " + version + ".json"), jsons.resolve("sounds " + version + ".json"));
+        }
+        Path out = folder.resolve("output.txt");
+        Watch watch = watch(jsons, out);
+        assertTrue(watch.start(new RunReport()));
+        String first = Files.readString(out);
+
+        // Saving a json loaded before the watch started, without changing it.
+        Path json = jsons.resolve("sounds 1.12.2.json");
+        Files.write(json, Files.readAllBytes(json));
+        var unchanged = new RunReport();
+        watch.update(Set.of(Version.of("1.12.2")), unchanged);
+        assertEquals(0, unchanged.filesParsed());
+        assertTrue(unchanged.matchedVersions().isEmpty());
+        assertEquals(first, Files.readString(out));
+
+        // 1.12.2 now has the sounds of 1.7, while 1.8.9 only got an event.
+        Files.copy(SOUNDS.resolve("sounds 1.7.json"), json, StandardCopyOption.REPLACE_EXISTING);
+        var changed = new RunReport();
+        watch.update(Set.of(Version.of("1.8.9"), Version.of("1.12.2")), changed);
+        assertEquals(1, changed.filesParsed());
+        assertEquals(Set.of(Version.of("1.12.2")), changed.matchedVersions());
+        assertNotEquals(first, Files.readString(out));
+
+        // The same output as watching the changed folder from the start.
+        Path fresh = folder.resolve("fresh.txt");
+        assertTrue(watch(jsons, fresh).start(new RunReport()));
+        assertEquals(Files.readString(fresh), Files.readString(out));
+    }
+
+    private static Watch watch(Path jsons, Path out) throws IOException {
+        Batch.Job job = Batch.job(new String[]{"--watch", "--base", "1.21.11", "--out", out.toString()});
+        List<CatalogSource> sources = List.of(new FolderCatalogSource(jsons));
+        var keys = new HashMap<Version, String>();
+        var versions = SoundFinderManager.getAvailableVersions(sources, new RunReport(), null, name -> fail("Unable to parse " + name), keys);
+        return new Watch(job, Version.of("1.21.11"), versions, keys, sources, jsons, null, null);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class OutputFileTest {
+    @Test
+    void outputsKeepTheUsualPermissions(@TempDir Path folder) throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+
+        Path usual = Files.createFile(folder.resolve("usual.txt"));
+        Path output = folder.resolve("output.txt");
+        write(output, "first");
+        assertEquals("first", Files.readString(output));
+        assertEquals(Files.getPosixFilePermissions(usual), Files.getPosixFilePermissions(output));
+
+        Files.setPosixFilePermissions(output, PosixFilePermissions.fromString("rw-r-----"));
+        write(output, "second");
+        assertEquals("second", Files.readString(output));
+        assertEquals(PosixFilePermissions.fromString("rw-r-----"), Files.getPosixFilePermissions(output));
+
+        try (var files = Files.list(folder)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    private static void write(Path path, String text) throws IOException {
+        try (OutputFile file = OutputFile.open(path)) {
+            file.writer().write(text);
+            file.commit();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoundsJsonReaderTest {
+    @Test
+    void readsEventsAndOggs() throws IOException {
+        String json = """
+                {
+                  "ambient.cave": {"sounds": ["ambient/cave/cave1", "ambient/cave/cave2"], "subtitle": "subtitles.ambient.cave"},
+                  "block.anvil.land": {"replace": true, "sounds": [{"name": "random/anvil_land", "volume": 0.5, "pitch": 1.25, "weight": 3, "stream": true}]},
+                  "music.game": {"category": "music", "sounds": [{"name": "music/game/calm1", "stream": true}, {"type": "event", "name": "music.menu"}]},
+                  "entity.empty": {"sounds": []}
+                }""";
+
+        assertEquals(List.of(
+                "event ambient.cave", "sound ambient/cave/cave1", "sound ambient/cave/cave2",
+                "event block.anvil.land", "sound random/anvil_land",
+                "event music.game", "sound music/game/calm1", "sound music.menu",
+                "event entity.empty"), read(json));
+    }
+
+    @Test
+    void readsAttributesOfOggs() throws IOException {
+        String json = """
+                {
+                  "block.anvil.land": {"sounds": ["random/anvil_land", {"name": "random/anvil_break", "volume": 0.5, "pitch": 1.25e0, "weight": 3, "stream": true}]},
+                  "music.game": {"sounds": [{"stream": false, "name": "music/game/calm1", "attenuation_distance": 8, "volume": "loud"}]}
+                }""";
+        var calls = new ArrayList<String>();
+
+        SoundsJsonReader.read(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)), new SoundsJsonReader.Handler() {
+            @Override
+            public void event(@NotNull String name) {
+            }
+
+            @Override
+            public void sound(@NotNull String name) {
+                fail("The attributes of " + name + " were not given.");
+            }
+
+            @Override
+            public void sound(@NotNull String name, float volume, float pitch, int weight, boolean stream) {
+                calls.add(name + " " + volume + " " + pitch + " " + weight + " " + stream);
+            }
+        });
+
+        assertEquals(List.of("random/anvil_land 1.0 1.0 1 false", "random/anvil_break 0.5 1.25 3 true",
+                "music/game/calm1 1.0 1.0 1 false"), calls);
+        assertThrows(IOException.class, () -> read("{\"a\": {\"sounds\": [{\"name\": \"b\", \"stream\": tru}]}}"));
+        assertThrows(IOException.class, () -> read("{\"a\": {\"sounds\": [{\"name\": \"b\", \"volume\": 1-}]}}"));
+    }
+
+    @Test
+    void skipsEverythingElse() throws IOException {
+        String json = """
+                {
+                  "a": {"subtitle": "a", "nested": {"sounds": ["not/an/ogg"], "list": [1, -2.5e3, true, null, {}, []]}},
+                  "b": {"sounds": "not an array"},
+                  "c": {"sounds": [{"volume": 2}, 4, null, ["x"], {"name": 5, "volume": "loud", "weight": false}, "c/1"]},
+                  "d": {}
+                }""";
+
+        assertEquals(List.of("event c", "sound c/1"), read(json));
+    }
+
+    @Test
+    void decodesEscapesAndUtf8() throws IOException {
+        String json = "{\"\\u0073ound.\\\"quoted\\\"\": {\"\\u0073ounds\": [\"path\\/to\\\\ogg\", \"m\u00fasica/\u00e1\u00e7\u00e3o\"]}}";
+
+        assertEquals(List.of("event sound.\"quoted\"", "sound path/to\\ogg", "sound m\u00fasica/\u00e1\u00e7\u00e3o"), read(json));
+    }
+
+    @Test
+    void readsAnyKindOfBuffer() throws IOException {
+        byte[] bytes = "\uFEFF{\"a\": {\"sounds\": [\"b\"]}}".getBytes(StandardCharsets.UTF_8);
+        List<String> expected = List.of("event a", "sound b");
+
+        assertEquals(expected, read(ByteBuffer.wrap(bytes)));
+
+        var direct = ByteBuffer.allocateDirect(bytes.length + 2);
+        direct.put((byte) ' ').put(bytes).put((byte) ' ').flip().position(1).limit(bytes.length + 1);
+        assertEquals(expected, read(direct));
+    }
+
+    @Test
+    void buffersFiles(@TempDir Path folder) throws IOException {
+        Path small = folder.resolve("small.json"), large = folder.resolve("large.json");
+        Files.writeString(small, "{\"a\": {\"sounds\": [\"b\"]}}");
+        var json = new StringBuilder("{");
+        for (int i = 0; i < 40_000; ++i) json.append("\"event").append(i).append("\": {\"sounds\": [\"ogg/").append(i).append("\"]},");
+        json.setCharAt(json.length() - 1, '}');
+        Files.writeString(large, json);
+
+        assertEquals(List.of("event a", "sound b"), read(SoundsJsonReader.buffer(small)));
+        ByteBuffer mapped = SoundsJsonReader.buffer(large);
+        assertTrue(mapped.isDirect());
+        assertEquals(80_000, read(mapped).size());
+    }
+
+    @Test
+    void rejectsMalformedJsons() {
+        for (String malformed : new String[]{"", "[]", "{", "{\"a\": {\"sounds\": [\"b\"]}", "{\"a\": {\"sounds\": [\"b\"]}} x",
+                "{\"a\": {\"sounds\": [\"b\",]}}", "{\"a\": {\"sounds\": [\"\\x\"]}}", "{\"a\": {\"sounds\": [\"\\u00\"]}}",
+                "{\"a\" {}}", "{\"a\": []}", "{\"a\": {\"sounds\": [\"b]}}"}) {
+            assertThrows(IOException.class, () -> read(malformed), malformed);
+        }
+    }
+
+    private static List<String> read(String json) throws IOException {
+        return read(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<String> read(ByteBuffer buffer) throws IOException {
+        var calls = new ArrayList<String>();
+
+        SoundsJsonReader.read(buffer, new SoundsJsonReader.Handler() {
+            @Override
+            public void event(@NotNull String name) {
+                calls.add("event " + name);
+            }
+
+            @Override
+            public void sound(@NotNull String name) {
+                calls.add("sound " + name);
+            }
+        });
+        return calls;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Sound Finder - Tool used to create SoundType enum for PlayMoreSounds.
+ * Copyright (C) 2022  Christiano Rangel
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.epicnicity322.soundfinder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionTest {
+    @Test
+    void trailingZeroNodesAreIgnored() {
+        Version version = Version.of("1.21");
+        Version zero = Version.of("1.21.0");
+
+        assertEquals(version, zero);
+        assertEquals(version.hashCode(), zero.hashCode());
+        assertEquals(0, version.compareTo(zero));
+        assertEquals(2, zero.nodes());
+        assertEquals(0, zero.node(5));
+        assertEquals("1.21.0", zero.toString());
+        assertEquals(version, new Version("1.21.0.0"));
+        assertNotEquals(version, Version.of("1.21.1"));
+    }
+
+    @Test
+    void versionsAreOrderedByEachNode() {
+        var versions = new TreeSet<Version>();
+        for (String version : new String[]{"1.21.11", "1.9", "1.10", "1.21", "1.8.9", "2.0", "1.21.2"}) versions.add(Version.of(version));
+
+        assertEquals(List.of("1.8.9", "1.9", "1.10", "1.21", "1.21.2", "1.21.11", "2.0"), versions.stream().map(Version::version).toList());
+        assertTrue(Version.of("1.7").compareTo(Version.of("1.7.1")) < 0);
+        assertTrue(Version.of("1.7.1").compareTo(Version.of("1.7")) > 0);
+    }
+
+    @Test
+    void invalidVersionsAreRejected() {
+        for (String version : new String[]{"", "1", "1.", ".1", "1..2", "1.a", "1.2-pre1", " 1.2", "-1.2"}) {
+            assertThrows(IllegalArgumentException.class, () -> Version.of(version), version);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new Version("1.99999999999"));
+        assertThrows(IllegalArgumentException.class, () -> Version.of("1.2147483648"));
+        assertEquals(Integer.MAX_VALUE, Version.of("1.2147483647").node(1));
+    }
+
+    @Test
+    void ofGivesTheCachedInstance() {
+        Version version = Version.of("1.16.5");
+
+        assertSame(version, Version.of("1.16.5"));
+        assertNotSame(version, new Version("1.16.5"));
+        assertEquals(version, new Version("1.16.5"));
+    }
+}